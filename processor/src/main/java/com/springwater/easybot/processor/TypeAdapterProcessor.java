@@ -0,0 +1,498 @@
+package com.springwater.easybot.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 为所有使用 {@code @SerializedName} 的类生成基于流式读写的 Gson TypeAdapter, 并生成统一注册用的 TypeAdapterFactory
+ * <p>
+ * 私有字段按照 Lombok 的命名规则通过 getter / setter 访问, 无法安全生成的类 (没有无参构造、缺少访问器、带泛型参数等)
+ * 会被跳过, 运行时仍由 Gson 的反射适配器处理
+ */
+@SupportedAnnotationTypes("com.google.gson.annotations.SerializedName")
+@SupportedOptions(TypeAdapterProcessor.FACTORY_OPTION)
+public class TypeAdapterProcessor extends AbstractProcessor {
+    static final String FACTORY_OPTION = "easybot.adapterFactory";
+    private static final String DEFAULT_FACTORY = "com.springwater.easybot.bridge.adapter.GeneratedTypeAdapterFactory";
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+
+    private Elements elements;
+    private Filer filer;
+    private Messager messager;
+    private boolean generated;
+    private String factoryName;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (generated || annotations.isEmpty()) {
+            return false;
+        }
+        generated = true;
+
+        List<TypeElement> candidates = new ArrayList<>();
+        for (Element root : roundEnv.getRootElements()) {
+            collectTypes(root, candidates);
+        }
+
+        factoryName = processingEnv.getOptions().getOrDefault(FACTORY_OPTION, DEFAULT_FACTORY);
+        Map<String, String> adapters = new LinkedHashMap<>();
+        for (TypeElement type : candidates) {
+            AdapterModel model = buildModel(type);
+            if (model == null) {
+                continue;
+            }
+            try {
+                writeAdapter(model);
+                adapters.put(model.targetName, model.adapterName);
+            } catch (IOException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "生成 TypeAdapter 失败: " + e.getMessage(), type);
+            }
+        }
+
+        try {
+            writeFactory(factoryName, adapters);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "生成 TypeAdapterFactory 失败: " + e.getMessage());
+        }
+        return false;
+    }
+
+    private void collectTypes(Element element, List<TypeElement> out) {
+        if (element.getKind() == ElementKind.CLASS) {
+            out.add((TypeElement) element);
+        }
+        for (Element enclosed : element.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.CLASS) {
+                collectTypes(enclosed, out);
+            }
+        }
+    }
+
+    /* -------------------- 模型 -------------------- */
+
+    private static final class FieldModel {
+        String jsonName;
+        TypeMirror type;
+        String readExpr;
+        String writePrefix;
+        String writeSuffix;
+        int adapterIndex = -1;
+    }
+
+    private static final class AdapterModel {
+        String packageName;
+        String targetName;
+        String adapterName;
+        List<FieldModel> fields = new ArrayList<>();
+        List<TypeMirror> delegates = new ArrayList<>();
+    }
+
+    private AdapterModel buildModel(TypeElement type) {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT) || !type.getTypeParameters().isEmpty()) {
+            return null;
+        }
+        if (type.getNestingKind().isNested() && !modifiers.contains(Modifier.STATIC)) {
+            return null;
+        }
+
+        List<VariableElement> fields = new ArrayList<>();
+        boolean annotated = false;
+        TypeElement current = type;
+        while (current != null && !current.getQualifiedName().contentEquals("java.lang.Object")) {
+            for (Element enclosed : current.getEnclosedElements()) {
+                if (enclosed.getKind() != ElementKind.FIELD) continue;
+                Set<Modifier> fieldModifiers = enclosed.getModifiers();
+                if (fieldModifiers.contains(Modifier.STATIC) || fieldModifiers.contains(Modifier.TRANSIENT)) continue;
+                fields.add((VariableElement) enclosed);
+                annotated |= serializedName(enclosed) != null;
+            }
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        if (!annotated) {
+            return null;
+        }
+        if (!hasNoArgConstructor(type)) {
+            skip(type, "没有可访问的无参构造");
+            return null;
+        }
+
+        AdapterModel model = new AdapterModel();
+        model.packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        model.targetName = type.getQualifiedName().toString();
+        model.adapterName = adapterSimpleName(type);
+
+        for (VariableElement field : fields) {
+            FieldModel fieldModel = buildField(model, type, field);
+            if (fieldModel == null) {
+                skip(type, "字段 " + field.getSimpleName() + " 无法访问");
+                return null;
+            }
+            model.fields.add(fieldModel);
+        }
+        return model;
+    }
+
+    private FieldModel buildField(AdapterModel model, TypeElement target, VariableElement field) {
+        TypeElement owner = (TypeElement) field.getEnclosingElement();
+        String name = field.getSimpleName().toString();
+        TypeMirror type = field.asType();
+        boolean primitiveBoolean = type.getKind() == TypeKind.BOOLEAN;
+
+        String getter;
+        String setter;
+        boolean directAccess = !field.getModifiers().contains(Modifier.PRIVATE)
+                && (field.getModifiers().contains(Modifier.PUBLIC) || samePackage(owner, target));
+        if (directAccess) {
+            if (field.getModifiers().contains(Modifier.FINAL)) return null;
+            getter = "value." + name;
+            setter = "value." + name + " = %s";
+        } else {
+            String getterName = getterName(name, primitiveBoolean);
+            String setterName = setterName(name, primitiveBoolean);
+            if (!hasAccessor(owner, field, getterName, 0, "lombok.Getter")) return null;
+            if (field.getModifiers().contains(Modifier.FINAL) || !hasAccessor(owner, field, setterName, 1, "lombok.Setter")) {
+                return null;
+            }
+            getter = "value." + getterName + "()";
+            setter = "value." + setterName + "(%s)";
+        }
+
+        FieldModel fieldModel = new FieldModel();
+        String serialized = serializedName(field);
+        fieldModel.jsonName = serialized != null ? serialized : name;
+        fieldModel.type = type;
+
+        switch (type.getKind()) {
+            case BOOLEAN:
+                fieldModel.readExpr = "if (in.peek() == JsonToken.NULL) { in.nextNull(); } else { " + String.format(setter, factoryName + ".readBoolean(in)") + "; }";
+                fieldModel.writePrefix = "out.value(" + getter + ");";
+                break;
+            case INT:
+                fieldModel.readExpr = "if (in.peek() == JsonToken.NULL) { in.nextNull(); } else { " + String.format(setter, "in.nextInt()") + "; }";
+                fieldModel.writePrefix = "out.value(" + getter + ");";
+                break;
+            case LONG:
+                fieldModel.readExpr = "if (in.peek() == JsonToken.NULL) { in.nextNull(); } else { " + String.format(setter, "in.nextLong()") + "; }";
+                fieldModel.writePrefix = "out.value(" + getter + ");";
+                break;
+            case DOUBLE:
+                fieldModel.readExpr = "if (in.peek() == JsonToken.NULL) { in.nextNull(); } else { " + String.format(setter, "in.nextDouble()") + "; }";
+                fieldModel.writePrefix = "out.value((Number) " + getter + ");";
+                break;
+            default:
+                if (type.getKind().isPrimitive()) {
+                    // 其余基本类型使用频率极低, 交由 Gson 反射适配器处理
+                    return null;
+                }
+                if (isString(type)) {
+                    fieldModel.readExpr = String.format(setter, factoryName + ".readString(in)") + ";";
+                    fieldModel.writePrefix = "out.value(" + getter + ");";
+                } else {
+                    fieldModel.adapterIndex = model.delegates.size();
+                    model.delegates.add(type);
+                    String adapter = "adapter" + fieldModel.adapterIndex;
+                    fieldModel.readExpr = String.format(setter, adapter + ".read(in)") + ";";
+                    fieldModel.writePrefix = typeName(type) + " v" + fieldModel.adapterIndex + " = " + getter + ";";
+                    fieldModel.writeSuffix = "if (v" + fieldModel.adapterIndex + " == null) { out.nullValue(); } else { " + adapter + ".write(out, v" + fieldModel.adapterIndex + "); }";
+                }
+                break;
+        }
+        return fieldModel;
+    }
+
+    private boolean hasNoArgConstructor(TypeElement type) {
+        boolean hasExplicit = false;
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed.getKind() != ElementKind.CONSTRUCTOR) continue;
+            hasExplicit = true;
+            ExecutableElement constructor = (ExecutableElement) enclosed;
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return !hasExplicit || hasAnnotation(type, "lombok.NoArgsConstructor");
+    }
+
+    private boolean hasAccessor(TypeElement owner, VariableElement field, String methodName, int parameterCount, String lombokAnnotation) {
+        for (Element enclosed : owner.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.METHOD
+                    && enclosed.getSimpleName().contentEquals(methodName)
+                    && ((ExecutableElement) enclosed).getParameters().size() == parameterCount
+                    && !enclosed.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return hasAnnotation(field, lombokAnnotation) || hasAnnotation(owner, lombokAnnotation) || hasAnnotation(owner, "lombok.Data");
+    }
+
+    /* -------------------- 代码生成 -------------------- */
+
+    private void writeAdapter(AdapterModel model) throws IOException {
+        String qualifiedAdapter = model.packageName.isEmpty() ? model.adapterName : model.packageName + "." + model.adapterName;
+        StringBuilder src = new StringBuilder();
+        if (!model.packageName.isEmpty()) {
+            src.append("package ").append(model.packageName).append(";\n\n");
+        }
+        src.append("import com.google.gson.Gson;\n");
+        src.append("import com.google.gson.JsonSyntaxException;\n");
+        src.append("import com.google.gson.TypeAdapter;\n");
+        src.append("import com.google.gson.reflect.TypeToken;\n");
+        src.append("import com.google.gson.stream.JsonReader;\n");
+        src.append("import com.google.gson.stream.JsonToken;\n");
+        src.append("import com.google.gson.stream.JsonWriter;\n\n");
+        src.append("import java.io.IOException;\n\n");
+        src.append("/**\n * 由 ").append(TypeAdapterProcessor.class.getSimpleName()).append(" 自动生成, 请勿手动修改\n */\n");
+        src.append("public final class ").append(model.adapterName).append(" extends TypeAdapter<").append(model.targetName).append("> {\n");
+        for (int i = 0; i < model.delegates.size(); i++) {
+            src.append("    private final TypeAdapter<").append(typeName(model.delegates.get(i))).append("> adapter").append(i).append(";\n");
+        }
+        src.append("\n    public ").append(model.adapterName).append("(Gson gson) {\n");
+        for (int i = 0; i < model.delegates.size(); i++) {
+            src.append("        this.adapter").append(i).append(" = gson.getAdapter(").append(typeToken(model.delegates.get(i))).append(");\n");
+        }
+        src.append("    }\n\n");
+
+        src.append("    @Override\n");
+        src.append("    public void write(JsonWriter out, ").append(model.targetName).append(" value) throws IOException {\n");
+        src.append("        if (value == null) {\n            out.nullValue();\n            return;\n        }\n");
+        src.append("        out.beginObject();\n");
+        for (FieldModel field : model.fields) {
+            src.append("        out.name(\"").append(escape(field.jsonName)).append("\");\n");
+            if (field.writeSuffix == null) {
+                src.append("        ").append(field.writePrefix).append("\n");
+            } else {
+                src.append("        {\n            ").append(field.writePrefix).append("\n            ").append(field.writeSuffix).append("\n        }\n");
+            }
+        }
+        src.append("        out.endObject();\n");
+        src.append("    }\n\n");
+
+        src.append("    @Override\n");
+        src.append("    public ").append(model.targetName).append(" read(JsonReader in) throws IOException {\n");
+        src.append("        if (in.peek() == JsonToken.NULL) {\n            in.nextNull();\n            return null;\n        }\n");
+        src.append("        ").append(model.targetName).append(" value = new ").append(model.targetName).append("();\n");
+        src.append("        try {\n");
+        src.append("            in.beginObject();\n");
+        src.append("            while (in.hasNext()) {\n");
+        src.append("                switch (in.nextName()) {\n");
+        for (FieldModel field : model.fields) {
+            src.append("                    case \"").append(escape(field.jsonName)).append("\":\n");
+            src.append("                        ").append(field.readExpr).append("\n");
+            src.append("                        break;\n");
+        }
+        src.append("                    default:\n");
+        src.append("                        in.skipValue();\n");
+        src.append("                        break;\n");
+        src.append("                }\n");
+        src.append("            }\n");
+        src.append("            in.endObject();\n");
+        src.append("        } catch (IllegalStateException | NumberFormatException e) {\n");
+        src.append("            throw new JsonSyntaxException(e);\n");
+        src.append("        }\n");
+        src.append("        return value;\n");
+        src.append("    }\n");
+        src.append("}\n");
+
+        try (Writer writer = filer.createSourceFile(qualifiedAdapter, elements.getTypeElement(model.targetName)).openWriter()) {
+            writer.write(src.toString());
+        }
+    }
+
+    private void writeFactory(String factoryName, Map<String, String> adapters) throws IOException {
+        int split = factoryName.lastIndexOf('.');
+        String packageName = split < 0 ? "" : factoryName.substring(0, split);
+        String simpleName = factoryName.substring(split + 1);
+
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("import com.google.gson.Gson;\n");
+        src.append("import com.google.gson.TypeAdapter;\n");
+        src.append("import com.google.gson.TypeAdapterFactory;\n");
+        src.append("import com.google.gson.reflect.TypeToken;\n");
+        src.append("import com.google.gson.stream.JsonReader;\n");
+        src.append("import com.google.gson.stream.JsonToken;\n\n");
+        src.append("import java.io.IOException;\n\n");
+        src.append("/**\n * 由 ").append(TypeAdapterProcessor.class.getSimpleName()).append(" 自动生成, 请勿手动修改\n");
+        src.append(" * <p>\n * 共 ").append(adapters.size()).append(" 个类使用生成的 TypeAdapter\n */\n");
+        src.append("public final class ").append(simpleName).append(" implements TypeAdapterFactory {\n");
+        src.append("    /**\n     * 生成的 TypeAdapter 数量\n     */\n");
+        src.append("    public static final int ADAPTER_COUNT = ").append(adapters.size()).append(";\n\n");
+        src.append("    @Override\n");
+        src.append("    @SuppressWarnings(\"unchecked\")\n");
+        src.append("    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {\n");
+        src.append("        Class<? super T> raw = type.getRawType();\n");
+        for (Map.Entry<String, String> entry : adapters.entrySet()) {
+            String target = entry.getKey();
+            TypeElement element = elements.getTypeElement(target);
+            String adapter = elements.getPackageOf(element).getQualifiedName() + "." + entry.getValue();
+            src.append("        if (raw == ").append(target).append(".class) return (TypeAdapter<T>) new ").append(adapter).append("(gson);\n");
+        }
+        src.append("        return null;\n");
+        src.append("    }\n\n");
+
+        src.append("    public static String readString(JsonReader in) throws IOException {\n");
+        src.append("        JsonToken token = in.peek();\n");
+        src.append("        if (token == JsonToken.NULL) {\n            in.nextNull();\n            return null;\n        }\n");
+        src.append("        if (token == JsonToken.BOOLEAN) {\n            return Boolean.toString(in.nextBoolean());\n        }\n");
+        src.append("        return in.nextString();\n");
+        src.append("    }\n\n");
+        src.append("    public static boolean readBoolean(JsonReader in) throws IOException {\n");
+        src.append("        if (in.peek() == JsonToken.STRING) {\n            return Boolean.parseBoolean(in.nextString());\n        }\n");
+        src.append("        return in.nextBoolean();\n");
+        src.append("    }\n");
+        src.append("}\n");
+
+        try (Writer writer = filer.createSourceFile(factoryName).openWriter()) {
+            writer.write(src.toString());
+        }
+    }
+
+    /* -------------------- 工具方法 -------------------- */
+
+    private String serializedName(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(SERIALIZED_NAME)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value")) {
+                        return (String) entry.getValue().getValue();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasAnnotation(Element element, String qualifiedName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(qualifiedName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean samePackage(TypeElement a, TypeElement b) {
+        PackageElement pa = elements.getPackageOf(a);
+        PackageElement pb = elements.getPackageOf(b);
+        return pa.getQualifiedName().contentEquals(pb.getQualifiedName());
+    }
+
+    private static boolean isString(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals("java.lang.String");
+    }
+
+    /**
+     * Lombok 的 getter 命名规则
+     */
+    static String getterName(String field, boolean primitiveBoolean) {
+        if (primitiveBoolean) {
+            if (hasIsPrefix(field)) return field;
+            return "is" + capitalize(field);
+        }
+        return "get" + capitalize(field);
+    }
+
+    /**
+     * Lombok 的 setter 命名规则
+     */
+    static String setterName(String field, boolean primitiveBoolean) {
+        if (primitiveBoolean && hasIsPrefix(field)) {
+            return "set" + field.substring(2);
+        }
+        return "set" + capitalize(field);
+    }
+
+    private static boolean hasIsPrefix(String field) {
+        return field.length() > 2 && field.startsWith("is") && Character.isUpperCase(field.charAt(2));
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String adapterSimpleName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.append("TypeAdapter").toString();
+    }
+
+    private static String typeName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            switch (type.getKind()) {
+                case BOOLEAN: return "Boolean";
+                case INT: return "Integer";
+                case LONG: return "Long";
+                case DOUBLE: return "Double";
+                default: return type.toString();
+            }
+        }
+        return type.toString();
+    }
+
+    private static String typeToken(TypeMirror type) {
+        if (type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty()) {
+            return "new TypeToken<" + type + ">() {}";
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName() + ".class";
+        }
+        return type + ".class";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private void skip(TypeElement type, String reason) {
+        messager.printMessage(Diagnostic.Kind.NOTE, "跳过 " + type.getQualifiedName() + ": " + reason + ", 将使用 Gson 反射适配器");
+    }
+}
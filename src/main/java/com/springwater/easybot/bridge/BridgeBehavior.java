@@ -1,8 +1,10 @@
 package com.springwater.easybot.bridge;
 
 import com.springwater.easybot.bridge.message.Segment;
+import com.springwater.easybot.bridge.model.PlaceholderQuery;
 import com.springwater.easybot.bridge.model.PlayerInfo;
 import com.springwater.easybot.bridge.model.ServerInfo;
+import java.util.ArrayList;
 import java.util.List;
 
 public interface BridgeBehavior {
@@ -17,4 +19,31 @@ public interface BridgeBehavior {
     boolean moduleIsEnabled(String moduleName);
     boolean isAuthenticated(String playerName);
     List<PlayerInfo> getPlayerList();
+
+    /**
+     * 在服务器主线程执行任务, 供执行策略为 MAIN_THREAD 的操作使用
+     * <p>
+     * 默认在调用线程中直接执行, 平台实现可以覆盖此方法
+     */
+    default void runOnMainThread(Runnable task) {
+        task.run();
+    }
+
+    /**
+     * 批量展开变量, 返回的列表与 queries 一一对应, 展开失败的项为 null
+     * <p>
+     * 默认逐个调用 {@link #papiQuery(String, String)}, 平台实现可以覆盖此方法, 在一次主线程调度中完成全部展开
+     */
+    default List<String> papiQueryBatch(List<PlaceholderQuery> queries) {
+        List<String> results = new ArrayList<>(queries.size());
+        for (PlaceholderQuery query : queries) {
+            try {
+                results.add(papiQuery(query.getPlayerName(), query.getText()));
+            } catch (Exception ex) {
+                BridgeClient.getLogger().error("执行Papi查询命令失败: " + ex);
+                results.add(null);
+            }
+        }
+        return results;
+    }
 }
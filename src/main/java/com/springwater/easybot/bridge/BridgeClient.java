@@ -1,30 +1,51 @@
 package com.springwater.easybot.bridge;
 
 import com.google.gson.*;
+import com.springwater.easybot.bridge.adapter.GeneratedTypeAdapterFactory;
 import com.springwater.easybot.bridge.adapter.OpCodeAdapter;
-import com.springwater.easybot.bridge.api.IBridgeExtension;
+import com.springwater.easybot.bridge.adapter.RawJsonAdapter;
+import com.springwater.easybot.bridge.admission.LoginAdmission;
 import com.springwater.easybot.bridge.api.events.lifecycle.BridgeConnectedAsyncEvent;
 import com.springwater.easybot.bridge.api.events.lifecycle.BridgeDisconnectedAsyncEvent;
 import com.springwater.easybot.bridge.api.events.lifecycle.BridgeOnlineAsyncEvent;
 import com.springwater.easybot.bridge.api.events.raw.BridgeSendPacketEvent;
 import com.springwater.easybot.bridge.api.events.raw.RawExecPacketEvent;
 import com.springwater.easybot.bridge.api.events.raw.RawPacketEvent;
-import com.springwater.easybot.bridge.api.rpc.BridgeRpc;
-import com.springwater.easybot.bridge.api.rpc.IRpcListener;
-import com.springwater.easybot.bridge.api.rpc.RpcContext;
+import com.springwater.easybot.bridge.api.exec.ExecContext;
+import com.springwater.easybot.bridge.api.exec.ExecPolicy;
+import com.springwater.easybot.bridge.cache.BindInfoCache;
+import com.springwater.easybot.bridge.cache.PlaceholderCache;
+import com.springwater.easybot.bridge.callback.CallbackRegistry;
+import com.springwater.easybot.bridge.callback.CallbackRegistry.PendingCallback;
+import com.springwater.easybot.bridge.callback.HashedWheelTimer;
+import com.springwater.easybot.bridge.callback.RequestOptions;
+import com.springwater.easybot.bridge.callback.SingleFlight;
+import com.springwater.easybot.bridge.codec.InboundFrame;
+import com.springwater.easybot.bridge.codec.OutboundCallBack;
+import com.springwater.easybot.bridge.codec.OutboundEncoder;
+import com.springwater.easybot.bridge.codec.RawJson;
 import com.springwater.easybot.bridge.extension.BridgeEventManager;
+import com.springwater.easybot.bridge.extension.BridgeExecRegistry;
+import com.springwater.easybot.bridge.extension.BridgeExecRegistry.ExecRegistration;
 import com.springwater.easybot.bridge.extension.BridgeRpcManager;
+import com.springwater.easybot.bridge.extension.ExtensionCatalog;
+import com.springwater.easybot.bridge.handler.BuiltinExecHandlers;
 import com.springwater.easybot.bridge.logger.DefaultLoggerAdapter;
 import com.springwater.easybot.bridge.logger.ILogger;
-import com.springwater.easybot.bridge.message.Segment;
-import com.springwater.easybot.bridge.message.SegmentType;
 import com.springwater.easybot.bridge.model.PlayerInfo;
-import com.springwater.easybot.bridge.model.ServerInfo;
 import com.springwater.easybot.bridge.packet.*;
-import com.springwater.easybot.bridge.utils.GsonUtils;
+import com.springwater.easybot.bridge.state.PlayerRoster;
+import com.springwater.easybot.bridge.state.ServerInfoSnapshot;
+import com.springwater.easybot.bridge.state.ServerStatePublisher;
+import com.springwater.easybot.bridge.transport.CompressionMetrics;
+import com.springwater.easybot.bridge.transport.OutboundQueue;
+import com.springwater.easybot.bridge.transport.PacketBatcher;
+import com.springwater.easybot.bridge.transport.SendLane;
+import com.springwater.easybot.bridge.transport.ThresholdDeflateExtension;
 import lombok.Getter;
 import lombok.Setter;
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.util.Decorator;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.websocket.api.Session;
@@ -32,14 +53,12 @@ import org.eclipse.jetty.websocket.api.WebSocketListener;
 import org.eclipse.jetty.websocket.client.ClientUpgradeRequest;
 import org.eclipse.jetty.websocket.client.WebSocketClient;
 
-import java.lang.reflect.Method;
+import java.io.IOException;
 import java.net.URI;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
-
-import static com.springwater.easybot.bridge.message.Segment.getSegmentClass;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 public class BridgeClient implements WebSocketListener {
 
@@ -52,12 +71,33 @@ public class BridgeClient implements WebSocketListener {
     @Getter
     private static final BridgeRpcManager rpcManager = new BridgeRpcManager();
 
+    @Getter
+    private static final BridgeExecRegistry execRegistry = new BridgeExecRegistry();
+
     @Setter
     @Getter
     private static ILogger logger = new DefaultLoggerAdapter();
 
     @Getter
-    private static final Gson gson = new GsonBuilder().registerTypeAdapter(OpCode.class, new OpCodeAdapter()).create();
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new GeneratedTypeAdapterFactory())
+            .registerTypeAdapter(OpCode.class, new OpCodeAdapter())
+            .registerTypeAdapter(RawJson.class, new RawJsonAdapter())
+            .create();
+
+    /**
+     * GET_EXTENSIONS 返回的扩展目录, 注册变化后才重建
+     */
+    @Getter
+    private static final ExtensionCatalog extensionCatalog = new ExtensionCatalog(gson, eventManager, rpcManager);
+
+    private static final OutboundEncoder encoder = new OutboundEncoder(gson);
+
+    private static final String DEFLATE_EXTENSION = "permessage-deflate";
+
+    static {
+        BuiltinExecHandlers.registerAll(execRegistry);
+    }
 
     private final WebSocketClient client;
     private final ExecutorService executor;
@@ -66,9 +106,52 @@ public class BridgeClient implements WebSocketListener {
         t.setDaemon(true);
         return t;
     });
+    @Getter
     private final BridgeBehavior behavior;
+    @Getter
+    private final ServerStatePublisher serverStatePublisher;
+    /**
+     * 在线玩家名单, 仅在 {@link ClientProfile#isPlayerRosterEnabled()} 时由加入/离开通知维护
+     */
+    @Getter
+    private final PlayerRoster playerRoster;
+    /**
+     * 已编码的服务器信息, 见 {@link ClientProfile#isServerInfoCacheEnabled()}
+     */
+    @Getter
+    private final ServerInfoSnapshot serverInfoSnapshot;
     private final Object connectionLock = new Object();
-    private final ConcurrentHashMap<String, CompletableFuture<String>> callbackTasks = new ConcurrentHashMap<>();
+    private final HashedWheelTimer callbackTimer = new HashedWheelTimer("BridgeClient-callbackTimer", 100, TimeUnit.MILLISECONDS, 512);
+
+    /**
+     * 等待主程序回调的请求
+     */
+    @Getter
+    private final CallbackRegistry callbackRegistry = new CallbackRegistry(callbackTimer);
+
+    /**
+     * 合并相同的进行中查询, 见 {@link #getBindInfoAsync} 与 {@link #getSocialAccountAsync}
+     */
+    @Getter
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    /**
+     * 绑定信息与社交账号的本地缓存, 收到绑定/解绑通知时失效
+     */
+    @Getter
+    private final BindInfoCache bindCache = new BindInfoCache();
+
+    /**
+     * 登录准入: 结果缓存, 主程序不可用时的降级与断路
+     */
+    @Getter
+    private final LoginAdmission loginAdmission = new LoginAdmission(this::sendLogin);
+
+    /**
+     * 主程序发起的变量查询结果缓存, 规则见 {@link ClientProfile#setPapiCacheTtl}
+     */
+    @Getter
+    private final PlaceholderCache placeholderCache = new PlaceholderCache();
 
     private final ScheduledExecutorService timeoutScheduler = Executors.newScheduledThreadPool(1, r -> {
         Thread t = new Thread(r, "BridgeClient-timeoutScheduler");
@@ -76,11 +159,32 @@ public class BridgeClient implements WebSocketListener {
         return t;
     });
 
-    @SuppressWarnings("FieldCanBeLocal")
-    private final long CallBackTimeout = 5;
-
     private Session session;
 
+    /**
+     * 当前连接的出站队列, 未连接时为 null
+     */
+    @Getter
+    private volatile OutboundQueue outboundQueue;
+
+    /**
+     * 当前连接的同步消息合并器, 仅在与主程序协商成功后存在
+     */
+    @Getter
+    private volatile PacketBatcher batcher;
+
+    /**
+     * 当前连接是否已与主程序协商使用二进制帧
+     */
+    @Getter
+    private volatile boolean binaryFrames;
+
+    /**
+     * 当前连接的压缩统计, 每次发起连接时重新创建
+     */
+    @Getter
+    private volatile CompressionMetrics compressionMetrics = new CompressionMetrics();
+
     @Setter
     @Getter
     private IdentifySuccessPacket identifySuccessPacket;
@@ -121,53 +225,109 @@ public class BridgeClient implements WebSocketListener {
         HttpClient httpClient = new HttpClient(sslContextFactory);
         httpClient.setExecutor(threadPool);
         this.client = new WebSocketClient(httpClient);
+        this.client.getExtensionFactory().register(DEFLATE_EXTENSION, ThresholdDeflateExtension.class);
+        this.client.getObjectFactory().addDecorator(new Decorator() {
+            @Override
+            public <T> T decorate(T o) {
+                // 扩展实例按连接创建, 在此绑定当前连接的统计
+                if (o instanceof ThresholdDeflateExtension) {
+                    ((ThresholdDeflateExtension) o).setMetrics(compressionMetrics);
+                }
+                return o;
+            }
+
+            @Override
+            public void destroy(Object o) {
+            }
+        });
         this.executor = Executors.newSingleThreadExecutor(r -> {
             Thread t = new Thread(r, "BridgeClient-Worker");
             t.setDaemon(true);
             return t;
         });
+        this.serverStatePublisher = new ServerStatePublisher(timeoutScheduler, this::send, this::getToken);
+        this.serverInfoSnapshot = new ServerInfoSnapshot(gson, behavior::getInfo);
+        this.playerRoster = new PlayerRoster(gson, behavior::getPlayerList, players -> {
+            if (!isShutdown) serverStatePublisher.update(players);
+        });
         instance = this;
         connect();
     }
 
-    private String perSend(Object packet) {
-        JsonObject object = GsonUtils.merge(gson, new JsonObject(), packet);
+    /**
+     * 编码数据包并触发发送事件
+     *
+     * @return 文本帧为 String, 二进制帧为 byte[]
+     */
+    private Object perSend(Object packet) throws IOException {
+        // 身份验证包总是在协商之前发送
+        boolean binary = binaryFrames && !(packet instanceof IdentifyPacket);
+        Object body = binary ? encoder.encodeBinary(packet) : encoder.encode(packet);
+        if (!eventManager.hasSubscribers(BridgeSendPacketEvent.class)) {
+            return body;
+        }
         BridgeSendPacketEvent event = new BridgeSendPacketEvent(this);
-        event.setPacket(object);
-        event.setHasCallbackId(packet.getClass().isInstance(PacketWithCallBackId.class));
+        if (binary) {
+            event.setEncodedBinary((byte[]) body);
+        } else {
+            event.setEncoded((String) body);
+        }
+        event.setHasCallbackId(packet instanceof PacketWithCallBackId || packet instanceof OutboundCallBack);
         eventManager.push(event);
-        return gson.toJson(event.getPacket());
+        if (!event.isPacketMaterialized()) {
+            return body;
+        }
+        // 监听者访问或替换了数据包时按修改后的内容重新编码
+        return binary ? encoder.encodeBinary(event.getPacket()) : gson.toJson(event.getPacket());
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable cause) {
+        CompletableFuture<T> failed = new CompletableFuture<>();
+        failed.completeExceptionally(cause);
+        return failed;
     }
 
     public <T> CompletableFuture<T> sendAndWaitForCallbackAsync(PacketWithCallBackId packet, Class<T> responseType) {
+        return sendAndWaitForCallbackAsync(packet, responseType, RequestOptions.DEFAULT);
+    }
+
+    /**
+     * 发送请求并等待主程序回调
+     *
+     * @param options 超时选项, 剩余时间会随数据包发给主程序
+     */
+    public <T> CompletableFuture<T> sendAndWaitForCallbackAsync(PacketWithCallBackId packet, Class<T> responseType, RequestOptions options) {
         if (isShutdown) {
-            CompletableFuture<T> failed = new CompletableFuture<>();
-            failed.completeExceptionally(new IllegalStateException("BridgeClient is shutting down"));
-            return failed;
+            return failedFuture(new IllegalStateException("BridgeClient is shutting down"));
         }
 
-        String callbackId = UUID.randomUUID().toString();
-        packet.setCallBackId(callbackId);
-
-        CompletableFuture<String> future = new CompletableFuture<>();
-        callbackTasks.put(callbackId, future);
-
-        send(packet);
-
-        ScheduledFuture<?> timeoutFuture = timeoutScheduler.schedule(() -> {
-            CompletableFuture<String> removedFuture = callbackTasks.remove(callbackId);
-            if (removedFuture != null) {
-                removedFuture.completeExceptionally(new TimeoutException("等待EasyBot返回结果超时!"));
+        long timeoutMillis = options.remainingMillis(packet.getOperation());
+        PendingCallback pending;
+        try {
+            pending = callbackRegistry.register(packet.getOperation(), timeoutMillis);
+        } catch (IllegalStateException e) {
+            return failedFuture(e);
+        }
+        packet.setCallBackId(pending.getId());
+        packet.setDeadlineMillis(timeoutMillis);
+
+        // 截止时间已过的请求不再发出
+        CompletableFuture<Void> sent = pending.getFuture().isDone() ? CompletableFuture.completedFuture(null) : send(packet);
+        sent.whenComplete((written, ex) -> {
+            // 请求没能写出时不必等到超时
+            if (ex != null) {
+                callbackRegistry.fail(pending.getId(), ex);
             }
-        }, CallBackTimeout, TimeUnit.SECONDS);
-
-        return future.thenApply(result -> {
-            timeoutFuture.cancel(false);
-            return gson.fromJson(result, responseType);
-        }).exceptionally(ex -> {
-            timeoutFuture.cancel(false);
-            throw new CompletionException("Error waiting for callback", ex);
         });
+
+        BiFunction<InboundFrame, Throwable, T> deliver = (result, ex) -> {
+            if (ex != null) {
+                throw new CompletionException("Error waiting for callback", ex);
+            }
+            return result.as(gson, responseType);
+        };
+        Executor executor = options.getExecutor();
+        return executor == null ? pending.getFuture().handle(deliver) : pending.getFuture().handleAsync(deliver, executor);
     }
 
     /* -------------------- WebSocketListener 实现 -------------------- */
@@ -180,6 +340,14 @@ public class BridgeClient implements WebSocketListener {
         }
         logger.info("已连接到服务器: " + session.getUpgradeRequest().getRequestURI());
         this.session = session;
+        releaseConnection("连接已重建");
+        this.binaryFrames = false;
+        this.outboundQueue = new OutboundQueue(session.getRemote());
+        if (ClientProfile.isCompressionEnabled()) {
+            boolean negotiated = session.getUpgradeResponse().getExtensions().stream().anyMatch(e -> DEFLATE_EXTENSION.equals(e.getName()));
+            compressionMetrics.setNegotiated(negotiated);
+            logger.info(negotiated ? "已启用 permessage-deflate 压缩" : "主程序未接受 permessage-deflate 压缩");
+        }
         synchronized (connectionLock) {
             isConnected = true;
             isConnecting = false; // 连接成功，复位正在连接状态
@@ -197,25 +365,45 @@ public class BridgeClient implements WebSocketListener {
         if (ClientProfile.isDebugMode()) {
             logger.info("收到消息: " + message);
         }
-        Gson gson = getGson();
-        Packet packet = gson.fromJson(message, Packet.class);
-        JsonObject body = gson.fromJson(message, JsonObject.class);
-        if (packet == null || packet.getOpCode() == null) {
+        InboundFrame frame = InboundFrame.decode(message);
+        if (frame == null || frame.getOpCode() == null) {
             logger.warn("解析到空 packet 或 opCode，原始消息: " + message);
             return;
         }
+        handleFrame(frame);
+    }
 
-        RawPacketEvent event = new RawPacketEvent(this);
-        event.setPacket(packet);
-        event.setBody(body);
-        eventManager.push(event);
-        if (event.isSkipInternalProcessing()) {
+    @Override
+    public void onWebSocketBinary(byte[] payload, int offset, int len) {
+        if (isShutdown) return;
+
+        InboundFrame frame = InboundFrame.decodeBinary(payload, offset, len);
+        if (ClientProfile.isDebugMode()) {
+            logger.info("收到二进制消息: " + (frame != null ? frame.getBody() : len + " 字节"));
+        }
+        if (frame == null || frame.getOpCode() == null) {
+            logger.warn("解析到空 packet 或 opCode，二进制消息长度: " + len);
             return;
         }
+        handleFrame(frame);
+    }
+
+    private void handleFrame(InboundFrame frame) {
+        Gson gson = getGson();
+
+        if (eventManager.hasSubscribers(RawPacketEvent.class)) {
+            RawPacketEvent event = new RawPacketEvent(this);
+            event.setPacket(frame.toPacket());
+            event.setFrame(frame);
+            eventManager.push(event);
+            if (event.isSkipInternalProcessing()) {
+                return;
+            }
+        }
 
-        switch (packet.getOpCode()) {
+        switch (frame.getOpCode()) {
             case Hello: {
-                HelloPacket helloPacket = gson.fromJson(message, HelloPacket.class);
+                HelloPacket helloPacket = frame.as(gson, HelloPacket.class);
                 setHelloPacket(helloPacket);
                 logger.info("已连接到主程序!");
                 logger.info(">>>主程序连接信息<<<");
@@ -237,9 +425,24 @@ public class BridgeClient implements WebSocketListener {
                 break;
             }
             case IdentifySuccess: {
-                IdentifySuccessPacket identifySuccessPacket = gson.fromJson(message, IdentifySuccessPacket.class);
+                IdentifySuccessPacket identifySuccessPacket = frame.as(gson, IdentifySuccessPacket.class);
                 setIdentifySuccessPacket(identifySuccessPacket);
                 logger.info("身份验证成功! 服务器名: " + identifySuccessPacket.getServerName());
+                binaryFrames = ClientProfile.isBinaryEnabled() && identifySuccessPacket.isSupportBinary();
+                if (binaryFrames) {
+                    logger.info("主程序支持二进制帧, 之后的数据包以二进制发送");
+                }
+                OutboundQueue queue = this.outboundQueue;
+                if (ClientProfile.isBatchEnabled() && identifySuccessPacket.isSupportBatch() && queue != null) {
+                    batcher = new PacketBatcher(queue, encoder, timeoutScheduler);
+                    logger.info("主程序支持批量发送, 已启用同步消息合并");
+                }
+                serverStatePublisher.reset(ClientProfile.isStateDeltaEnabled() && identifySuccessPacket.isSupportStateDelta());
+                // 断开期间错过的绑定通知无法补发
+                bindCache.invalidateAll();
+                loginAdmission.invalidateAll();
+                // 重连多半伴随着一端的重载, 服务器信息也重新获取
+                serverInfoSnapshot.invalidate();
                 logger.info("已连接到主程序!");
                 startUpdateSyncSettings();
                 startHeartbeat();
@@ -252,36 +455,27 @@ public class BridgeClient implements WebSocketListener {
                 break;
             }
             case Packet: {
-                handlePacket(message);
+                handlePacket(frame);
                 break;
             }
             case CallBack: {
-                PacketWithCallBackId packetWithCallBackId = gson.fromJson(message, PacketWithCallBackId.class);
-                if (packetWithCallBackId.getCallBackId() != null) {
-                    CompletableFuture<String> future = callbackTasks.remove(packetWithCallBackId.getCallBackId());
-                    if (future != null) {
-                        future.complete(message);
-                    }
-                }
+                callbackRegistry.complete(frame.getCallBackId(), frame);
                 break;
             }
             case HeartBeat: {
                 break;
             }
             default: {
-                logger.info("收到未知 OpCode: " + packet.getOpCode());
+                logger.info("收到未知 OpCode: " + frame.getOpCode());
             }
         }
     }
 
-    @Override
-    public void onWebSocketBinary(byte[] payload, int offset, int len) {
-    }
-
     @Override
     public void onWebSocketClose(int statusCode, String reason) {
         logger.info("连接关闭: " + reason + " (code: " + statusCode + ")");
         resetConnectionStates(); // 统一清理状态
+        releaseConnection("连接已关闭");
 
         try {
             if (heartbeatScheduler != null) {
@@ -313,6 +507,7 @@ public class BridgeClient implements WebSocketListener {
 
         logger.error("连接遇到错误: " + cause.getMessage()); // 简化日志输出
         resetConnectionStates();
+        releaseConnection("连接遇到错误");
 
         try {
             if (heartbeatScheduler != null) {
@@ -331,25 +526,94 @@ public class BridgeClient implements WebSocketListener {
         }
     }
 
+    /**
+     * 释放与当前连接绑定的资源, 排队中的数据和等待中的回调都无法再送达, 立即失败
+     */
+    private void releaseConnection(String reason) {
+        PacketBatcher batcher = this.batcher;
+        if (batcher != null) {
+            this.batcher = null;
+            batcher.close(new CancellationException(reason));
+        }
+        OutboundQueue queue = this.outboundQueue;
+        if (queue != null) {
+            this.outboundQueue = null;
+            queue.close(new CancellationException(reason));
+        }
+        int failed = callbackRegistry.failAll(new CancellationException(reason));
+        if (failed > 0) {
+            logger.warn(reason + ", " + failed + " 个等待中的请求已取消");
+        }
+    }
+
     /* -------------------- 业务方法 -------------------- */
 
-    private void send(Object packet) {
-        if (isShutdown) return;
+    private static SendLane laneOf(Object packet) {
+        if (packet instanceof OutboundCallBack) {
+            return SendLane.CALLBACK;
+        }
+        if (packet instanceof HeartbeatPacket || packet instanceof IdentifyPacket) {
+            return SendLane.CONTROL;
+        }
+        if (packet instanceof PacketWithCallBackId) {
+            String callBackId = ((PacketWithCallBackId) packet).getCallBackId();
+            if (callBackId != null && !callBackId.isEmpty()) {
+                return SendLane.REQUEST;
+            }
+        }
+        return SendLane.SYNC;
+    }
+
+    /**
+     * 编码并放入出站队列
+     *
+     * @return 数据帧被实际写出后完成
+     */
+    private CompletableFuture<Void> send(Object packet) {
+        if (isShutdown) return failedFuture(new IllegalStateException("BridgeClient is shutting down"));
         try {
-            String body = perSend(packet);
+            Object body = perSend(packet);
+            OutboundQueue queue = this.outboundQueue;
             Session s = this.session;
-            if (s != null && s.isOpen()) {
-                s.getRemote().sendStringByFuture(body);
-            } else {
-                // 如果是心跳包，且连接不可用，不打印warn，防止刷屏
-                if (!(packet instanceof HeartbeatPacket)) {
-                    logger.warn("尝试发送消息但 session 不可用，消息被丢弃");
-                }
+            if (queue != null && s != null && s.isOpen()) {
+                SendLane lane = laneOf(packet);
+                CompletableFuture<Void> written = body instanceof byte[] ? queue.enqueue(lane, (byte[]) body) : queue.enqueue(lane, (String) body);
+                written.whenComplete((v, ex) -> {
+                    // 队列溢出由队列自行计数, 不逐条打印
+                    if (ex != null && !isShutdown && !(ex instanceof RejectedExecutionException) && !(ex instanceof CancellationException)) {
+                        logger.error("发送消息失败: " + ex.getMessage());
+                    }
+                });
+                return written;
+            }
+            // 如果是心跳包，且连接不可用，不打印warn，防止刷屏
+            if (!(packet instanceof HeartbeatPacket)) {
+                logger.warn("尝试发送消息但 session 不可用，消息被丢弃");
             }
+            return failedFuture(new IllegalStateException("session 不可用"));
         } catch (Exception e) {
             if (!isShutdown) {
                 logger.error("发送消息失败: " + e.getMessage());
             }
+            return failedFuture(e);
+        }
+    }
+
+    /**
+     * 发送无需回调的同步消息, 与主程序协商过批量发送时先交给合并器
+     */
+    private CompletableFuture<Void> sendBatched(PacketWithCallBackId packet) {
+        PacketBatcher batcher = this.batcher;
+        if (batcher == null) {
+            return send(packet);
+        }
+        if (isShutdown) return failedFuture(new IllegalStateException("BridgeClient is shutting down"));
+        try {
+            Object body = perSend(packet);
+            return body instanceof byte[] ? batcher.add((byte[]) body) : batcher.add((String) body);
+        } catch (Exception e) {
+            logger.error("发送消息失败: " + e.getMessage());
+            return failedFuture(e);
         }
     }
 
@@ -372,185 +636,79 @@ public class BridgeClient implements WebSocketListener {
         }, 0, getHeartbeatInterval(), TimeUnit.SECONDS);
     }
 
-    private void handlePacket(String message) {
+    private void handlePacket(InboundFrame frame) {
         if (isShutdown) return;
 
-        Gson gson = getGson();
-        PacketWithCallBackId packet = gson.fromJson(message, PacketWithCallBackId.class);
-        JsonObject callBack = new JsonObject();
-        callBack.addProperty("op", OpCode.CallBack.getValue());
-        callBack.addProperty("callback_id", packet.getCallBackId());
-        callBack.addProperty("exec_op", packet.getOperation());
-
-        JsonObject body = gson.fromJson(message, JsonObject.class);
-        RawExecPacketEvent rawPacketEvent = new RawExecPacketEvent(this);
-        rawPacketEvent.setPacket(packet);
-        rawPacketEvent.setBody(body);
-        rawPacketEvent.setCallBack(callBack);
-        eventManager.push(rawPacketEvent);
-
-        if (!rawPacketEvent.isSkipInternalProcessing()) {
-            try {
-                switch (packet.getOperation()) {
-                    case "GET_SERVER_INFO": {
-                        ServerInfo info = behavior.getInfo();
-                        GsonUtils.merge(gson, callBack, info);
-                        break;
-                    }
-                    case "UN_BIND_NOTIFY": {
-                        PlayerUnBindNotifyPacket unBindNotifyPacket = gson.fromJson(message, PlayerUnBindNotifyPacket.class);
-                        behavior.KickPlayer(unBindNotifyPacket.getPlayerName(), unBindNotifyPacket.getKickMessage());
-                        break;
-                    }
-                    case "BIND_SUCCESS_NOTIFY": {
-                        BindSuccessNotifyPacket bindSuccessNotifyPacket = gson.fromJson(message, BindSuccessNotifyPacket.class);
-                        behavior.BindSuccessBroadcast(bindSuccessNotifyPacket.getPlayerName(), bindSuccessNotifyPacket.getAccountId(), bindSuccessNotifyPacket.getAccountName());
-                        break;
-                    }
-                    case "PLACEHOLDER_API_QUERY": {
-                        PlaceholderApiQueryPacket placeholderApiQueryPacket = gson.fromJson(message, PlaceholderApiQueryPacket.class);
-                        PlaceholderApiQueryResultPacket papiQueryResultPacket = new PlaceholderApiQueryResultPacket();
-                        try {
-                            String papiQueryResult = behavior.papiQuery(placeholderApiQueryPacket.getPlayerName(), placeholderApiQueryPacket.getText());
-                            papiQueryResultPacket.setSuccess(true);
-                            papiQueryResultPacket.setText(papiQueryResult);
-                        } catch (Exception ex) {
-                            papiQueryResultPacket.setSuccess(false);
-                            papiQueryResultPacket.setText(ex.getLocalizedMessage());
-                            logger.error("执行Papi查询命令失败: " + ex);
-                        }
-                        GsonUtils.merge(gson, callBack, papiQueryResultPacket);
-                        break;
-                    }
-                    case "RUN_COMMAND": {
-                        RunCommandPacket runCommandPacket = gson.fromJson(message, RunCommandPacket.class);
-                        RunCommandResultPacket runCommandResultPacket = new RunCommandResultPacket();
-                        try {
-                            String runCommandResult = behavior.runCommand(runCommandPacket.getPlayerName(), runCommandPacket.getCommand(), runCommandPacket.isEnablePapi());
-                            runCommandResultPacket.setSuccess(true);
-                            runCommandResultPacket.setText(runCommandResult);
-                        } catch (Exception ex) {
-                            runCommandResultPacket.setSuccess(false);
-                            runCommandResultPacket.setText(ex.getLocalizedMessage());
-                            logger.error("执行命令失败: " + ex);
-                        }
-                        GsonUtils.merge(gson, callBack, runCommandResultPacket);
-                        break;
-                    }
-                    case "SEND_TO_CHAT": {
-                        SendToChatOldPacket sendToChatPacket = gson.fromJson(message, SendToChatOldPacket.class);
-                        JsonObject sendToChatPacketRaw = gson.fromJson(message, JsonObject.class);
-                        JsonElement extra = sendToChatPacketRaw.get("extra");
-                        if (extra == null || extra.isJsonNull()) {
-                            behavior.SyncToChat(sendToChatPacket.getText());
-                            break;
-                        }
-                        SendToChatPacket sendToChatPacketNew = gson.fromJson(message, SendToChatPacket.class);
-                        List<Segment> segments = StreamSupport.stream(sendToChatPacketNew.getExtra().getAsJsonArray().spliterator(), false).map(JsonElement::getAsJsonObject).map(extraObject -> {
-                            SegmentType extraType = SegmentType.getSegmentType(extraObject.get("type").getAsInt());
-                            if (extraType == null) return null;
-                            Class<? extends Segment> segmentClass = getSegmentClass(extraType);
-                            return segmentClass != null ? gson.fromJson(extraObject, segmentClass) : null;
-                        }).filter(Objects::nonNull).collect(Collectors.toList());
-                        behavior.SyncToChatExtra(segments, sendToChatPacket.getText());
-                        break;
-                    }
-                    case "SYNC_SETTINGS_UPDATED": {
-                        UpdateSyncSettingsPacket updateSyncSettingsPacket = gson.fromJson(message, UpdateSyncSettingsPacket.class);
-                        ClientProfile.setSyncMessageMoney(updateSyncSettingsPacket.getSyncMoney());
-                        ClientProfile.setSyncMessageMode(updateSyncSettingsPacket.getSyncMode());
-                        break;
-                    }
-                    case "PLAYER_LIST": {
-                        PlayerListPacket playerListPacket = new PlayerListPacket();
-                        playerListPacket.setList(behavior.getPlayerList());
-                        GsonUtils.merge(gson, callBack, playerListPacket);
-                        break;
-                    }
-                    case "RPC_CALL":
-                        rpcExecutor.execute(() -> {
-                            if (isShutdown) return;
-                            RpcCallPacket rpcCallPacket = gson.fromJson(message, RpcCallPacket.class);
-                            RpcContext context = new RpcContext(this, rpcCallPacket.getBody());
-                            try {
-                                context = rpcManager.call(rpcCallPacket.getIdentifier(), rpcCallPacket.getMethod(), context);
-                                context.getError().addProperty("error", false);
-                            } catch (Exception ex) {
-                                logger.error("调用RPC方法失败: " + ex.getLocalizedMessage());
-                                context.getError().addProperty("error", true);
-                                context.getError().addProperty("error_message", ex.getLocalizedMessage());
-                            }
-
-                            if (context.getError().get("error").getAsBoolean()) {
-                                callBack.addProperty("error", true);
-                                callBack.addProperty("error_message", context.getError().get("error_message").getAsString());
-                            } else {
-                                callBack.addProperty("error", false);
-                                callBack.addProperty("error_message", "");
-                            }
-                            callBack.add("result", context.getResult());
-                            send(callBack);
-                        });
-                        break;
-                    case "GET_EXTENSIONS":
-                        JsonObject extensions = new JsonObject();
-                        Set<IBridgeExtension> listeners = new HashSet<>();
-                        HashMap<IBridgeExtension, List<IRpcListener>> extensionListenersMap = rpcManager.getRpcListeners();
-                        listeners.addAll(eventManager.getExtensions().collect(Collectors.toList()));
-                        listeners.addAll(extensionListenersMap.keySet());
-
-                        for (IBridgeExtension extensionInstance : listeners) {
-                            JsonObject extension = new JsonObject();
-                            extension.addProperty("name", extensionInstance.getName());
-                            extension.addProperty("description", extensionInstance.getDescription());
-                            extension.addProperty("author", extensionInstance.getAuthor());
-                            extension.addProperty("version", extensionInstance.getVersion());
-                            extension.add("required_plugins", gson.toJsonTree(extensionInstance.requiredPlugins()));
-                            extension.addProperty("identifier", extensionInstance.getIdentifier());
-                            if (extensionListenersMap.containsKey(extensionInstance)) {
-                                JsonObject rpc = new JsonObject();
-                                List<IRpcListener> listenerList = extensionListenersMap.get(extensionInstance);
-                                for (IRpcListener listener : listenerList) {
-                                    for (Method rpcFun : Arrays.stream(listener.getClass().getMethods()).filter(method -> method.isAnnotationPresent(BridgeRpc.class)).collect(Collectors.toList())) {
-                                        JsonObject rpcMethod = new JsonObject();
-                                        BridgeRpc rpcAnnotation = rpcFun.getAnnotation(BridgeRpc.class);
-                                        rpcMethod.addProperty("identifier", extensionInstance.getIdentifier());
-                                        rpcMethod.addProperty("method", rpcAnnotation.method());
-                                        rpcMethod.addProperty("description", rpcAnnotation.description());
-                                        rpcMethod.addProperty("displayName", rpcAnnotation.displayName());
-                                        rpcMethod.addProperty("fullMethodClassName", rpcFun.getDeclaringClass().getName() + "." + rpcFun.getName());
-                                        rpc.add(rpcAnnotation.method(), rpcMethod);
-                                    }
-                                }
-                                extension.add("rpc", rpc);
-                            }
-                            extensions.add(extensionInstance.getIdentifier(), extension);
-                        }
-                        callBack.add("extensions", extensions);
-                        break;
-                    case "MODULE_INSTALLED":
-                        ModuleInstalledPacked moduleInstalledPacked = gson.fromJson(message, ModuleInstalledPacked.class);
-                        callBack.addProperty("installed", behavior.moduleIsInstalled(moduleInstalledPacked.getModuleName()));
-                        break;
-                    case "MODULE_ENABLED":
-                        ModuleEnabledPacked moduleEnabledPacked = gson.fromJson(message, ModuleEnabledPacked.class);
-                        callBack.addProperty("enabled", behavior.moduleIsEnabled(moduleEnabledPacked.getModuleName()));
-                        break;
-                    case "IS_AUTHENTICATED":
-                        IsAuthenticatedPacket isAuthenticatedPacket = gson.fromJson(message, IsAuthenticatedPacket.class);
-                        callBack.addProperty("authenticated", behavior.isAuthenticated(isAuthenticatedPacket.getPlayerName()));
-                        break;
-                    default: {
-                        logger.info("收到未知操作: " + packet.getOperation() + " 请确保你的插件是最新版本????");
-                        break;
-                    }
-                }
-            } catch (Exception e) {
-                logger.error("处理 packet 时发生异常: " + e);
+        PacketWithCallBackId packet = frame.toPacketWithCallBackId();
+        OutboundCallBack callBack = new OutboundCallBack(packet.getCallBackId(), packet.getOperation());
+        invalidateBindCaches(packet.getOperation(), frame);
+
+        ExecRegistration<?> registration = execRegistry.lookup(packet.getOperation());
+        if (eventManager.hasSubscribers(RawExecPacketEvent.class)) {
+            RawExecPacketEvent rawPacketEvent = new RawExecPacketEvent(this);
+            rawPacketEvent.setPacket(packet);
+            rawPacketEvent.setFrame(frame);
+            rawPacketEvent.setOutboundCallBack(callBack);
+            eventManager.push(rawPacketEvent);
+            if (rawPacketEvent.isSkipInternalProcessing()) {
+                // 非 INLINE 操作的回调由拦截者自行负责
+                if (registration == null || registration.getPolicy() == ExecPolicy.INLINE) send(callBack);
+                return;
             }
         }
 
-        if (!Objects.equals(packet.getOperation(), "RPC_CALL")) send(callBack);
+        if (registration == null) {
+            logger.info("收到未知操作: " + packet.getOperation() + " 请确保你的插件是最新版本????");
+            send(callBack);
+            return;
+        }
+
+        switch (registration.getPolicy()) {
+            case INLINE:
+                execute(registration, frame, packet, callBack);
+                break;
+            case WORKER:
+                rpcExecutor.execute(() -> {
+                    if (isShutdown) return;
+                    execute(registration, frame, packet, callBack);
+                });
+                break;
+            case MAIN_THREAD:
+                behavior.runOnMainThread(() -> {
+                    if (isShutdown) return;
+                    execute(registration, frame, packet, callBack);
+                });
+                break;
+        }
+    }
+
+    /**
+     * 绑定关系变化的通知先于处理器与拦截者失效缓存, 之后的查询一定会回源
+     */
+    private void invalidateBindCaches(String operation, InboundFrame frame) {
+        if (!"BIND_SUCCESS_NOTIFY".equals(operation) && !"UN_BIND_NOTIFY".equals(operation)) {
+            return;
+        }
+        JsonElement playerName = frame.getBody().get("player_name");
+        if (playerName != null && playerName.isJsonPrimitive()) {
+            bindCache.invalidate(playerName.getAsString());
+        } else {
+            bindCache.invalidateAll();
+        }
+        // 登录结果按 UUID 缓存, 无法按玩家名精确失效
+        loginAdmission.invalidateAll();
+    }
+
+    private <T extends PacketWithCallBackId> void execute(ExecRegistration<T> registration, InboundFrame frame, PacketWithCallBackId envelope, OutboundCallBack callBack) {
+        try {
+            T packet = registration.needsBody() ? frame.as(gson, registration.getPacketType()) : registration.getPacketType().cast(envelope);
+            ExecContext<T> context = new ExecContext<>(this, packet, frame, callBack);
+            registration.getHandler().handle(context);
+            callBack.setResult(context.getResult());
+        } catch (Exception e) {
+            logger.error("处理 packet 时发生异常: " + e);
+        }
+        send(callBack);
     }
 
     private void sendIdentifyPacket() {
@@ -558,17 +716,47 @@ public class BridgeClient implements WebSocketListener {
         IdentifyPacket packet = new IdentifyPacket(getToken());
         packet.setPluginVersion(ClientProfile.getPluginVersion());
         packet.setServerDescription(ClientProfile.getServerDescription());
+        packet.setSupportBatch(ClientProfile.isBatchEnabled());
+        packet.setSupportStateDelta(ClientProfile.isStateDeltaEnabled());
+        packet.setSupportBinary(ClientProfile.isBinaryEnabled());
+        packet.setSupportPapiBatch(true);
         send(packet);
     }
 
     @SuppressWarnings("unused")
     public PlayerLoginResultPacket login(String playerName, String playerUuid) throws ExecutionException, InterruptedException {
+        return loginAsync(playerName, playerUuid).get();
+    }
+
+    @SuppressWarnings("unused")
+    public PlayerLoginResultPacket login(String playerName, String playerUuid, RequestOptions options) throws ExecutionException, InterruptedException {
+        return loginAsync(playerName, playerUuid, options).get();
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<PlayerLoginResultPacket> loginAsync(String playerName, String playerUuid) {
+        return loginAsync(playerName, playerUuid, RequestOptions.DEFAULT);
+    }
+
+    /**
+     * 异步查询玩家能否进入服务器, 不阻塞调用线程
+     * <p>
+     * 经过 {@link LoginAdmission}: 可能直接返回缓存的结果, 主程序不可用时按 {@link ClientProfile#getLoginFailurePolicy()} 处理
+     *
+     * @param options 超时与交付结果的线程, 见 {@link RequestOptions#completeOn}
+     */
+    @SuppressWarnings("unused")
+    public CompletableFuture<PlayerLoginResultPacket> loginAsync(String playerName, String playerUuid, RequestOptions options) {
+        return loginAdmission.admit(playerName, playerUuid, options);
+    }
+
+    private CompletableFuture<PlayerLoginResultPacket> sendLogin(String playerName, String playerUuid, RequestOptions options) {
         OnPlayerJoinPacket packet = new OnPlayerJoinPacket();
         PlayerInfo playerInfo = new PlayerInfo();
         playerInfo.setPlayerName(playerName);
         playerInfo.setPlayerUuid(playerUuid);
         packet.setPlayerInfo(playerInfo);
-        return sendAndWaitForCallbackAsync(packet, PlayerLoginResultPacket.class).get();
+        return sendAndWaitForCallbackAsync(packet, PlayerLoginResultPacket.class, options);
     }
 
     @SuppressWarnings("unused")
@@ -578,16 +766,28 @@ public class BridgeClient implements WebSocketListener {
         packet.setPlayerUuid(playerUuid);
         packet.setPlayerIp(playerIp);
         packet.setCallBackId("");
-        send(packet);
+        if (ClientProfile.isPlayerRosterEnabled()) {
+            playerRoster.join(playerName, playerUuid, playerIp);
+        }
+        sendBatched(packet);
     }
 
+    /**
+     * 更新服务器状态, 合并窗口内只发送最后一次
+     */
     @SuppressWarnings("unused")
     public void serverState(String players) {
-        ServerStatePacket packet = new ServerStatePacket();
-        packet.setToken(getToken());
-        packet.setPlayers(players);
-        packet.setCallBackId("");
-        send(packet);
+        if (isShutdown) return;
+        serverStatePublisher.update(players);
+    }
+
+    /**
+     * 以玩家集合更新服务器状态, 主程序支持时只发送加入与离开的玩家
+     */
+    @SuppressWarnings("unused")
+    public void serverState(Collection<String> players) {
+        if (isShutdown) return;
+        serverStatePublisher.update(players);
     }
 
     @SuppressWarnings("unused")
@@ -598,33 +798,127 @@ public class BridgeClient implements WebSocketListener {
         packet.setName(name);
         packet.setToken(getToken());
         packet.setCallBackId("");
-        send(packet);
+        sendBatched(packet);
     }
 
     @SuppressWarnings("unused")
     public StartBindResultPacket startBind(String playerName) throws ExecutionException, InterruptedException {
+        return startBindAsync(playerName).get();
+    }
+
+    @SuppressWarnings("unused")
+    public StartBindResultPacket startBind(String playerName, RequestOptions options) throws ExecutionException, InterruptedException {
+        return startBindAsync(playerName, options).get();
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<StartBindResultPacket> startBindAsync(String playerName) {
+        return startBindAsync(playerName, RequestOptions.DEFAULT);
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<StartBindResultPacket> startBindAsync(String playerName, RequestOptions options) {
         StartBindPacket packet = new StartBindPacket();
         packet.setPlayerName(playerName);
-        return sendAndWaitForCallbackAsync(packet, StartBindResultPacket.class).get();
+        return sendAndWaitForCallbackAsync(packet, StartBindResultPacket.class, options);
     }
 
     @SuppressWarnings("unused")
     public GetSocialAccountResultPacket getSocialAccount(String playerName) throws ExecutionException, InterruptedException {
+        return getSocialAccountAsync(playerName).get();
+    }
+
+    @SuppressWarnings("unused")
+    public GetSocialAccountResultPacket getSocialAccount(String playerName, RequestOptions options) throws ExecutionException, InterruptedException {
+        return getSocialAccountAsync(playerName, options).get();
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<GetSocialAccountResultPacket> getSocialAccountAsync(String playerName) {
+        return getSocialAccountAsync(playerName, RequestOptions.DEFAULT);
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<GetSocialAccountResultPacket> getSocialAccountAsync(String playerName, RequestOptions options) {
+        GetSocialAccountResultPacket cached = bindCache.getSocialAccount(playerName);
+        if (cached != null) {
+            return completed(cached, options);
+        }
+        long generation = bindCache.generation();
         GetSocialAccountPacket packet = new GetSocialAccountPacket();
         packet.setPlayerName(playerName);
-        return sendAndWaitForCallbackAsync(packet, GetSocialAccountResultPacket.class).get();
+        return sendCoalesced(packet, packet.getOperation() + '\0' + BindInfoCache.key(playerName), GetSocialAccountResultPacket.class, options,
+                result -> bindCache.putSocialAccount(playerName, result, generation));
     }
 
     @SuppressWarnings("unused")
     public GetNewVersionResultPacket getNewVersion() throws ExecutionException, InterruptedException {
-        return sendAndWaitForCallbackAsync(new GetNewVersionPacket(), GetNewVersionResultPacket.class).get();
+        return getNewVersionAsync().get();
+    }
+
+    @SuppressWarnings("unused")
+    public GetNewVersionResultPacket getNewVersion(RequestOptions options) throws ExecutionException, InterruptedException {
+        return getNewVersionAsync(options).get();
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<GetNewVersionResultPacket> getNewVersionAsync() {
+        return getNewVersionAsync(RequestOptions.DEFAULT);
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<GetNewVersionResultPacket> getNewVersionAsync(RequestOptions options) {
+        return sendAndWaitForCallbackAsync(new GetNewVersionPacket(), GetNewVersionResultPacket.class, options);
     }
 
     @SuppressWarnings("unused")
     public GetBindInfoResultPacket getBindInfo(String playerName) throws ExecutionException, InterruptedException {
+        return getBindInfoAsync(playerName).get();
+    }
+
+    @SuppressWarnings("unused")
+    public GetBindInfoResultPacket getBindInfo(String playerName, RequestOptions options) throws ExecutionException, InterruptedException {
+        return getBindInfoAsync(playerName, options).get();
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<GetBindInfoResultPacket> getBindInfoAsync(String playerName) {
+        return getBindInfoAsync(playerName, RequestOptions.DEFAULT);
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<GetBindInfoResultPacket> getBindInfoAsync(String playerName, RequestOptions options) {
+        GetBindInfoResultPacket cached = bindCache.getBindInfo(playerName);
+        if (cached != null) {
+            return completed(cached, options);
+        }
+        long generation = bindCache.generation();
         GetBindInfoPacket packet = new GetBindInfoPacket();
         packet.setPlayerName(playerName);
-        return sendAndWaitForCallbackAsync(packet, GetBindInfoResultPacket.class).get();
+        return sendCoalesced(packet, packet.getOperation() + '\0' + BindInfoCache.key(playerName), GetBindInfoResultPacket.class, options,
+                result -> bindCache.putBindInfo(playerName, result, generation));
+    }
+
+    /**
+     * 本地已有结果时按请求选项交付, 指定了回调线程时仍在该线程上交付
+     */
+    private static <T> CompletableFuture<T> completed(T value, RequestOptions options) {
+        Executor executor = options.getExecutor();
+        return executor == null ? CompletableFuture.completedFuture(value) : CompletableFuture.supplyAsync(() -> value, executor);
+    }
+
+    /**
+     * 发送只读查询, 相同查询正在进行时共享其结果而不再发出
+     *
+     * @param key       查询的键, 包含操作名与全部参数
+     * @param onSuccess 每次实际收到结果时调用一次, 用于写入缓存
+     */
+    private <T> CompletableFuture<T> sendCoalesced(PacketWithCallBackId packet, String key, Class<T> responseType, RequestOptions options, Consumer<T> onSuccess) {
+        return singleFlight.execute(key, () -> {
+            CompletableFuture<T> future = sendAndWaitForCallbackAsync(packet, responseType, options.withExecutor(null));
+            future.thenAccept(onSuccess);
+            return future;
+        }, options.getExecutor());
     }
 
     @SuppressWarnings("unused")
@@ -634,7 +928,7 @@ public class BridgeClient implements WebSocketListener {
         packet.setMessage(message);
         packet.setUseCommand(useCommand);
         packet.setCallBackId("");
-        send(packet);
+        sendBatched(packet);
     }
 
     @SuppressWarnings("unused")
@@ -644,7 +938,7 @@ public class BridgeClient implements WebSocketListener {
         packet.setRaw(killMessage);
         packet.setKiller(killer);
         packet.setCallBackId("");
-        send(packet);
+        sendBatched(packet);
     }
 
     @SuppressWarnings("unused")
@@ -653,38 +947,107 @@ public class BridgeClient implements WebSocketListener {
         packet.setPlayer(playerInfo);
         packet.setEnter(isEnter);
         packet.setCallBackId("");
-        send(packet);
+        if (ClientProfile.isPlayerRosterEnabled() && playerInfo != null) {
+            if (isEnter) {
+                playerRoster.join(playerInfo.getName(), playerInfo.getUuid(), playerInfo.getIp());
+            } else {
+                playerRoster.leave(playerInfo.getName());
+            }
+        }
+        sendBatched(packet);
     }
 
     @SuppressWarnings("unused")
     public GetInstalledPluginResultPacket getInstalledPlugin() {
-        if (!identifySuccessPacket.isSupportGetPluginList()) throw new RuntimeException("您的EasyBot版本过旧,请升级到dev11及以上版本!");
+        return getInstalledPlugin(RequestOptions.DEFAULT);
+    }
+
+    @SuppressWarnings("unused")
+    public GetInstalledPluginResultPacket getInstalledPlugin(RequestOptions options) {
+        checkPluginListSupported();
+        return getInstalledPluginAsync(options).join();
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<GetInstalledPluginResultPacket> getInstalledPluginAsync() {
+        return getInstalledPluginAsync(RequestOptions.DEFAULT);
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<GetInstalledPluginResultPacket> getInstalledPluginAsync(RequestOptions options) {
+        try {
+            checkPluginListSupported();
+        } catch (RuntimeException e) {
+            return failedFuture(e);
+        }
         GetInstalledPluginPacket packet = new GetInstalledPluginPacket();
         packet.setCallBackId("");
         packet.setOperation("INSTALLED_PLUGIN");
-        return sendAndWaitForCallbackAsync(packet, GetInstalledPluginResultPacket.class).join();
+        return sendAndWaitForCallbackAsync(packet, GetInstalledPluginResultPacket.class, options);
+    }
+
+    private void checkPluginListSupported() {
+        if (!identifySuccessPacket.isSupportGetPluginList()) throw new RuntimeException("您的EasyBot版本过旧,请升级到dev11及以上版本!");
     }
 
     @SuppressWarnings("unused")
     public JsonObject rpcCall(String identifier, String method, JsonObject body) {
+        return rpcCall(identifier, method, body, RequestOptions.DEFAULT);
+    }
+
+    @SuppressWarnings("unused")
+    public JsonObject rpcCall(String identifier, String method, JsonObject body, RequestOptions options) {
+        // 远程方法返回的错误直接抛出, 不包装为 CompletionException
+        return rpcResult(identifier, method, sendRpcCall(identifier, method, body, options).join());
+    }
+
+    @SuppressWarnings("unused")
+    public <T> T rpcCall(String identifier, String method, JsonObject body, Class<T> responseType) {
+        return rpcCall(identifier, method, body, responseType, RequestOptions.DEFAULT);
+    }
+
+    @SuppressWarnings("unused")
+    public <T> T rpcCall(String identifier, String method, JsonObject body, Class<T> responseType, RequestOptions options) {
+        JsonObject resp = rpcCall(identifier, method, body, options);
+        return getGson().fromJson(resp, responseType);
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<JsonObject> rpcCallAsync(String identifier, String method, JsonObject body) {
+        return rpcCallAsync(identifier, method, body, RequestOptions.DEFAULT);
+    }
+
+    @SuppressWarnings("unused")
+    public CompletableFuture<JsonObject> rpcCallAsync(String identifier, String method, JsonObject body, RequestOptions options) {
+        return sendRpcCall(identifier, method, body, options).thenApply(result -> rpcResult(identifier, method, result));
+    }
+
+    @SuppressWarnings("unused")
+    public <T> CompletableFuture<T> rpcCallAsync(String identifier, String method, JsonObject body, Class<T> responseType) {
+        return rpcCallAsync(identifier, method, body, responseType, RequestOptions.DEFAULT);
+    }
+
+    @SuppressWarnings("unused")
+    public <T> CompletableFuture<T> rpcCallAsync(String identifier, String method, JsonObject body, Class<T> responseType, RequestOptions options) {
+        return rpcCallAsync(identifier, method, body, options).thenApply(resp -> getGson().fromJson(resp, responseType));
+    }
+
+    private CompletableFuture<JsonObject> sendRpcCall(String identifier, String method, JsonObject body, RequestOptions options) {
         RpcCallPacket packet = new RpcCallPacket();
         packet.setIdentifier(identifier);
         packet.setMethod(method);
         packet.setBody(body);
         packet.setOperation("RPC_CALL");
-        JsonObject result = sendAndWaitForCallbackAsync(packet, JsonObject.class).join();
+        return sendAndWaitForCallbackAsync(packet, JsonObject.class, options);
+    }
+
+    private static JsonObject rpcResult(String identifier, String method, JsonObject result) {
         if (result.get("error").getAsBoolean()) {
             throw new RuntimeException("执行" + identifier + " 方法 " + method + "方法时发生错误: " + result.get("error_message").getAsString());
         }
         return result.get("result").getAsJsonObject();
     }
 
-    @SuppressWarnings("unused")
-    public <T> T rpcCall(String identifier, String method, JsonObject body, Class<T> responseType) {
-        JsonObject resp = rpcCall(identifier, method, body);
-        return getGson().fromJson(resp, responseType);
-    }
-
     /* -------------------- 连接管理 -------------------- */
 
     private void connect() {
@@ -710,6 +1073,10 @@ public class BridgeClient implements WebSocketListener {
                 logger.info("正在连接到服务器: " + uri);
                 URI echoUri = new URI(uri);
                 ClientUpgradeRequest request = new ClientUpgradeRequest();
+                compressionMetrics = new CompressionMetrics();
+                if (ClientProfile.isCompressionEnabled()) {
+                    request.addExtensions(DEFLATE_EXTENSION);
+                }
                 client.connect(this, echoUri, request);
                 // 注意：这里不要设置 isConnected=true，必须等 onWebSocketConnect 回调
             } catch (Exception e) {
@@ -789,6 +1156,7 @@ public class BridgeClient implements WebSocketListener {
         } catch (Exception ignored) {
         }
 
+        releaseConnection("Client closed");
         try {
             if (session != null && session.isOpen()) {
                 session.close();
@@ -806,10 +1174,9 @@ public class BridgeClient implements WebSocketListener {
         }
         try {
             timeoutScheduler.shutdownNow();
+            callbackTimer.stop();
             executor.shutdownNow();
             rpcExecutor.shutdownNow();
-            callbackTasks.values().forEach(f -> f.completeExceptionally(new CancellationException("Client closed")));
-            callbackTasks.clear();
         } catch (Exception e) {
             logger.error("关闭线程池失败: " + e.getMessage());
         }
@@ -1,8 +1,16 @@
 package com.springwater.easybot.bridge;
 
+import com.springwater.easybot.bridge.admission.LoginFailurePolicy;
+import com.springwater.easybot.bridge.transport.OverflowPolicy;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class ClientProfile {
     @Getter
     @Setter
@@ -64,4 +72,269 @@ public class ClientProfile {
     @Setter
     private static boolean hasQFaces;
 
+    /**
+     * 出站队列每个通道最多缓存的帧数
+     */
+    @Getter
+    @Setter
+    private static int sendQueueMaxFrames = 4096;
+
+    /**
+     * 出站队列每个通道最多缓存的字符数, 二进制帧按字节数计
+     */
+    @Getter
+    @Setter
+    private static long sendQueueMaxChars = 8 * 1024 * 1024;
+
+    /**
+     * 同步消息通道已满时的处理方式
+     */
+    @Getter
+    @Setter
+    private static OverflowPolicy syncOverflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    /**
+     * 请求通道已满时的处理方式
+     */
+    @Getter
+    @Setter
+    private static OverflowPolicy requestOverflowPolicy = OverflowPolicy.REJECT;
+
+    /**
+     * 是否尝试把同步消息合并为批量帧发送, 仅在主程序支持时生效
+     */
+    @Getter
+    @Setter
+    private static boolean batchEnabled = false;
+
+    /**
+     * 批量帧的最长等待时间 (毫秒)
+     */
+    @Getter
+    @Setter
+    private static long batchLingerMillis = 20;
+
+    /**
+     * 单个批量帧最多包含的消息数
+     */
+    @Getter
+    @Setter
+    private static int batchMaxPackets = 64;
+
+    /**
+     * 单个批量帧最多包含的字符数
+     */
+    @Getter
+    @Setter
+    private static int batchMaxChars = 64 * 1024;
+
+    /**
+     * 服务器状态的合并窗口 (毫秒), 窗口内只发送最后一次状态
+     */
+    @Getter
+    @Setter
+    private static long serverStateWindowMillis = 500;
+
+    /**
+     * 是否尝试以增量形式发送服务器状态, 仅在主程序支持时生效
+     */
+    @Getter
+    @Setter
+    private static boolean stateDeltaEnabled = false;
+
+    /**
+     * 是否由桥接维护在线玩家名单. 开启后 PLAYER_LIST 只在首次调用 {@link BridgeBehavior#getPlayerList()},
+     * 之后由加入/离开通知更新, 并在名单变化时自动更新服务器状态
+     */
+    @Getter
+    @Setter
+    private static boolean playerRosterEnabled = false;
+
+    /**
+     * 玩家名单保留的变更记录数, 主程序持有的版本落后更多时返回完整名单
+     */
+    @Getter
+    @Setter
+    private static int playerRosterHistorySize = 256;
+
+    /**
+     * 是否缓存服务器信息. 开启后 GET_SERVER_INFO 只在首次或失效后调用 {@link BridgeBehavior#getInfo()},
+     * 服务器信息变化时平台需调用 {@link com.springwater.easybot.bridge.state.ServerInfoSnapshot#invalidate()}
+     */
+    @Getter
+    @Setter
+    private static boolean serverInfoCacheEnabled = true;
+
+    /**
+     * 是否向主程序请求 permessage-deflate 压缩, 修改后在下一次连接时生效
+     */
+    @Getter
+    @Setter
+    private static boolean compressionEnabled = false;
+
+    /**
+     * 小于此字节数的出站消息不压缩
+     */
+    @Getter
+    @Setter
+    private static int compressionThreshold = 1024;
+
+    /**
+     * 是否尝试使用二进制帧收发数据包, 仅在主程序支持时生效
+     */
+    @Getter
+    @Setter
+    private static boolean binaryEnabled = false;
+
+    /**
+     * 未单独配置的请求等待回调的默认超时 (毫秒)
+     */
+    @Getter
+    @Setter
+    private static long callbackTimeoutMillis = 5000;
+
+    /**
+     * 绑定信息与社交账号缓存的最大条目数
+     */
+    @Getter
+    @Setter
+    private static int bindCacheMaxEntries = 1024;
+
+    /**
+     * 绑定信息与社交账号缓存的存活时间 (毫秒), 0 表示不缓存
+     */
+    @Getter
+    @Setter
+    private static long bindCacheTtlMillis = 60_000;
+
+    /**
+     * 登录结果缓存的最大条目数
+     */
+    @Getter
+    @Setter
+    private static int loginCacheMaxEntries = 4096;
+
+    /**
+     * 放行结果的缓存时间 (毫秒), 0 表示不缓存, 每次登录都询问主程序
+     */
+    @Getter
+    @Setter
+    private static long loginCacheTtlMillis = 0;
+
+    /**
+     * 拒绝结果的缓存时间 (毫秒), 0 表示不缓存
+     */
+    @Getter
+    @Setter
+    private static long loginNegativeCacheTtlMillis = 0;
+
+    /**
+     * 无法从主程序得到登录结果时的处理方式
+     */
+    @Getter
+    @Setter
+    private static LoginFailurePolicy loginFailurePolicy = LoginFailurePolicy.THROW;
+
+    /**
+     * 按 {@link LoginFailurePolicy#DENY} 拒绝玩家时的提示
+     */
+    @Getter
+    @Setter
+    private static String loginFallbackKickMessage = "暂时无法连接到 EasyBot, 请稍后再试";
+
+    /**
+     * 登录查询连续超时多少次后不再等待主程序, 0 表示不启用
+     */
+    @Getter
+    @Setter
+    private static int loginBreakerThreshold = 5;
+
+    /**
+     * 不再等待主程序的时间 (毫秒), 之后放行一次登录查询作为探测
+     */
+    @Getter
+    @Setter
+    private static long loginBreakerOpenMillis = 10_000;
+
+    /**
+     * 变量查询结果缓存的最大条目数
+     */
+    @Getter
+    @Setter
+    private static int papiCacheMaxEntries = 2048;
+
+    /**
+     * 没有匹配规则的变量的缓存时间 (毫秒), 0 表示不缓存
+     */
+    @Getter
+    @Setter
+    private static long papiCacheDefaultTtlMillis = 0;
+
+    /**
+     * 变量缓存规则, 键为变量名模式 (如 {@code server_*}), 值为缓存时间 (毫秒)
+     */
+    @Getter
+    private static volatile Map<String, Long> papiCacheRules = Collections.emptyMap();
+
+    private static final Map<String, Long> operationTimeouts = new ConcurrentHashMap<>();
+
+    static {
+        operationTimeouts.put("GET_BIND_INFO", 5000L);
+        operationTimeouts.put("GET_SOCIAL_ACCOUNT", 5000L);
+        operationTimeouts.put("GET_NEW_VERSION", 10_000L);
+        operationTimeouts.put("INSTALLED_PLUGIN", 15_000L);
+        operationTimeouts.put("RPC_CALL", 10_000L);
+    }
+
+    /**
+     * 获取某个操作等待回调的默认超时 (毫秒)
+     */
+    public static long getOperationTimeoutMillis(String operation) {
+        Long timeout = operation == null ? null : operationTimeouts.get(operation);
+        return timeout != null ? timeout : callbackTimeoutMillis;
+    }
+
+    /**
+     * 设置某个操作等待回调的默认超时, 小于等于 0 时恢复为 {@link #getCallbackTimeoutMillis()}
+     */
+    public static void setOperationTimeoutMillis(String operation, long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            operationTimeouts.remove(operation);
+        } else {
+            operationTimeouts.put(operation, timeoutMillis);
+        }
+    }
+
+    /**
+     * 设置匹配某个模式的变量的缓存时间
+     *
+     * @param pattern   变量名, 可带或不带两侧的 %, 支持 * 通配符, 如 {@code player_*}
+     * @param ttlMillis 缓存时间 (毫秒), 0 表示不缓存
+     */
+    public static synchronized void setPapiCacheTtl(String pattern, long ttlMillis) {
+        Map<String, Long> next = new LinkedHashMap<>(papiCacheRules);
+        next.put(normalizePapiPattern(pattern), Math.max(0, ttlMillis));
+        papiCacheRules = Collections.unmodifiableMap(next);
+    }
+
+    /**
+     * 标记匹配某个模式的变量永不缓存, 例如依赖当前时间或随机数的变量
+     */
+    public static void setPapiNonCacheable(String pattern) {
+        setPapiCacheTtl(pattern, 0);
+    }
+
+    public static synchronized void removePapiCacheRule(String pattern) {
+        Map<String, Long> next = new LinkedHashMap<>(papiCacheRules);
+        next.remove(normalizePapiPattern(pattern));
+        papiCacheRules = Collections.unmodifiableMap(next);
+    }
+
+    private static String normalizePapiPattern(String pattern) {
+        String trimmed = pattern.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("%") && trimmed.endsWith("%")) {
+            trimmed = trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
 }
@@ -8,6 +8,19 @@ public enum OpCode {
     Packet(4),
     CallBack(5);
 
+    private static final OpCode[] BY_VALUE;
+
+    static {
+        int max = 0;
+        for (OpCode opCode : values()) {
+            max = Math.max(max, opCode.value);
+        }
+        BY_VALUE = new OpCode[max + 1];
+        for (OpCode opCode : values()) {
+            BY_VALUE[opCode.value] = opCode;
+        }
+    }
+
     private final int value;
 
     OpCode(int value) {
@@ -19,11 +32,9 @@ public enum OpCode {
     }
 
     public static OpCode fromValue(int value) {
-        for (OpCode opCode : OpCode.values()) {
-            if (opCode.getValue() == value) {
-                return opCode;
-            }
+        if (value < 0 || value >= BY_VALUE.length) {
+            return null;
         }
-        return null;
+        return BY_VALUE[value];
     }
 }
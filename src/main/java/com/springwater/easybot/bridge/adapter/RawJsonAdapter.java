@@ -0,0 +1,25 @@
+package com.springwater.easybot.bridge.adapter;
+
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.springwater.easybot.bridge.codec.RawJson;
+
+import java.io.IOException;
+
+public class RawJsonAdapter extends TypeAdapter<RawJson> {
+    @Override
+    public void write(JsonWriter out, RawJson value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+        } else {
+            value.writeTo(out);
+        }
+    }
+
+    @Override
+    public RawJson read(JsonReader in) {
+        return new RawJson(JsonParser.parseReader(in).toString());
+    }
+}
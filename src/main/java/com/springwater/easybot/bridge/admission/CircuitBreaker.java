@@ -0,0 +1,96 @@
+package com.springwater.easybot.bridge.admission;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * 连续失败后暂停请求的断路器
+ * <p>
+ * 连续失败达到阈值后打开, 打开期间直接拒绝; 打开时间结束后放行一个探测请求, 成功则关闭, 失败则重新打开
+ */
+public final class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final IntSupplier threshold;
+    private final LongSupplier openMillis;
+    private final LongAdder trips = new LongAdder();
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probing;
+
+    /**
+     * @param threshold  连续失败多少次后打开, 小于等于 0 时不打开
+     * @param openMillis 打开后多久允许探测 (毫秒)
+     */
+    public CircuitBreaker(IntSupplier threshold, LongSupplier openMillis) {
+        this.threshold = threshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * 请求前调用
+     *
+     * @return false 表示断路器打开, 不应发出请求
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openMillis.getAsLong() * 1_000_000L) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probing = true;
+                return true;
+            default:
+                // 半开状态只放行一个探测请求
+                if (probing) {
+                    return false;
+                }
+                probing = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probing = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        probing = false;
+        consecutiveFailures++;
+        int limit = threshold.getAsInt();
+        if (state == State.HALF_OPEN || (limit > 0 && consecutiveFailures >= limit && state == State.CLOSED)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            trips.increment();
+        }
+    }
+
+    /**
+     * 请求既没成功也不算失败 (例如被取消) 时归还探测机会
+     */
+    public synchronized void onIgnored() {
+        probing = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 断路器打开的次数
+     */
+    public long getTrips() {
+        return trips.sum();
+    }
+}
@@ -0,0 +1,156 @@
+package com.springwater.easybot.bridge.admission;
+
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.cache.ExpiringLruCache;
+import com.springwater.easybot.bridge.callback.RequestOptions;
+import com.springwater.easybot.bridge.packet.PlayerLoginResultPacket;
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 玩家登录的准入判断
+ * <p>
+ * 按 UUID 缓存主程序最近的判断, 放行与拒绝分别设置存活时间; 主程序连续超时后断路器打开,
+ * 打开期间不再等待主程序而直接按 {@link ClientProfile#getLoginFailurePolicy()} 处理
+ */
+public final class LoginAdmission {
+    /**
+     * 向主程序查询登录结果, 参数为玩家名与 UUID
+     */
+    public interface Loader {
+        CompletableFuture<PlayerLoginResultPacket> load(String playerName, String playerUuid, RequestOptions options);
+    }
+
+    private final Loader loader;
+    @Getter
+    private final ExpiringLruCache<String, PlayerLoginResultPacket> allowed =
+            new ExpiringLruCache<>(ClientProfile::getLoginCacheMaxEntries, ClientProfile::getLoginCacheTtlMillis);
+    @Getter
+    private final ExpiringLruCache<String, PlayerLoginResultPacket> denied =
+            new ExpiringLruCache<>(ClientProfile::getLoginCacheMaxEntries, ClientProfile::getLoginNegativeCacheTtlMillis);
+    @Getter
+    private final CircuitBreaker breaker = new CircuitBreaker(ClientProfile::getLoginBreakerThreshold, ClientProfile::getLoginBreakerOpenMillis);
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder fastFailures = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public LoginAdmission(Loader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * 判断玩家能否进入服务器
+     *
+     * @return 结果对象可能来自缓存并被共享, 不应修改
+     */
+    public CompletableFuture<PlayerLoginResultPacket> admit(String playerName, String playerUuid, RequestOptions options) {
+        String key = key(playerName, playerUuid);
+        PlayerLoginResultPacket cached = allowed.get(key);
+        if (cached == null) {
+            cached = denied.get(key);
+        }
+        if (cached != null) {
+            return deliver(CompletableFuture.completedFuture(cached), options.getExecutor());
+        }
+
+        if (!breaker.tryAcquire()) {
+            fastFailures.increment();
+            return deliver(fallback(new CompletionException(new TimeoutException("EasyBot 连续超时, 暂不等待登录结果"))), options.getExecutor());
+        }
+
+        long generation = this.generation.get();
+        CompletableFuture<PlayerLoginResultPacket> future;
+        try {
+            future = loader.load(playerName, playerUuid, options.withExecutor(null));
+        } catch (RuntimeException e) {
+            breaker.onIgnored();
+            throw e;
+        }
+        CompletableFuture<PlayerLoginResultPacket> result = future.handle((packet, ex) -> {
+            if (ex == null) {
+                breaker.onSuccess();
+                cache(key, packet, generation);
+                return CompletableFuture.completedFuture(packet);
+            }
+            if (isTimeout(ex)) {
+                breaker.onFailure();
+            } else {
+                breaker.onIgnored();
+            }
+            return fallback(ex);
+        }).thenCompose(f -> f);
+        return deliver(result, options.getExecutor());
+    }
+
+    private synchronized void cache(String key, PlayerLoginResultPacket packet, long generation) {
+        // 查询期间发生过失效时不写入
+        if (generation == this.generation.get()) {
+            (Boolean.TRUE.equals(packet.getKick()) ? denied : allowed).put(key, packet);
+        }
+    }
+
+    /**
+     * 玩家的绑定关系变化后之前的判断不再可信
+     */
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        allowed.clear();
+        denied.clear();
+    }
+
+    private CompletableFuture<PlayerLoginResultPacket> fallback(Throwable ex) {
+        LoginFailurePolicy policy = ClientProfile.getLoginFailurePolicy();
+        if (policy == LoginFailurePolicy.THROW) {
+            CompletableFuture<PlayerLoginResultPacket> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ex);
+            return failed;
+        }
+        fallbacks.increment();
+        PlayerLoginResultPacket packet = new PlayerLoginResultPacket();
+        packet.setKick(policy == LoginFailurePolicy.DENY);
+        packet.setKickMessage(policy == LoginFailurePolicy.DENY ? ClientProfile.getLoginFallbackKickMessage() : "");
+        return CompletableFuture.completedFuture(packet);
+    }
+
+    private static boolean isTimeout(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> CompletableFuture<T> deliver(CompletableFuture<T> future, Executor executor) {
+        return executor == null ? future : future.whenCompleteAsync((value, ex) -> {
+        }, executor);
+    }
+
+    private static String key(String playerName, String playerUuid) {
+        if (playerUuid != null && !playerUuid.isEmpty()) {
+            return playerUuid;
+        }
+        return playerName == null ? "" : playerName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 断路器打开期间未等待主程序而直接处理的登录数
+     */
+    public long getFastFailures() {
+        return fastFailures.sum();
+    }
+
+    /**
+     * 按失败策略放行或拒绝的登录数
+     */
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+}
@@ -0,0 +1,19 @@
+package com.springwater.easybot.bridge.admission;
+
+/**
+ * 无法从主程序得到登录结果时的处理方式
+ */
+public enum LoginFailurePolicy {
+    /**
+     * 把异常交给调用方处理, 与没有登录缓存时一致
+     */
+    THROW,
+    /**
+     * 放行玩家
+     */
+    ALLOW,
+    /**
+     * 以 {@link com.springwater.easybot.bridge.ClientProfile#getLoginFallbackKickMessage()} 拒绝玩家
+     */
+    DENY
+}
@@ -3,6 +3,7 @@ package com.springwater.easybot.bridge.api.events.raw;
 import com.google.gson.JsonObject;
 import com.springwater.easybot.bridge.BridgeClient;
 import com.springwater.easybot.bridge.api.events.BridgeEvent;
+import com.springwater.easybot.bridge.codec.BinaryDecoder;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -14,6 +15,14 @@ public class BridgeSendPacketEvent extends BridgeEvent {
      * 发送的包
      */
     JsonObject packet;
+    /**
+     * 编码后的数据帧
+     */
+    String encoded;
+    /**
+     * 编码后的二进制数据帧, 与主程序协商使用二进制时代替 {@link #encoded}
+     */
+    byte[] encodedBinary;
     /**
      * 本条消息是否有回调
      */
@@ -21,4 +30,23 @@ public class BridgeSendPacketEvent extends BridgeEvent {
     public BridgeSendPacketEvent(BridgeClient client) {
         super(client);
     }
+
+    /**
+     * 获取发送的包, 首次访问时才会从编码后的数据帧解析
+     */
+    public JsonObject getPacket() {
+        if (packet == null && encoded != null) {
+            packet = BridgeClient.getGson().fromJson(encoded, JsonObject.class);
+        } else if (packet == null && encodedBinary != null) {
+            packet = BinaryDecoder.decode(encodedBinary, 0, encodedBinary.length).getAsJsonObject();
+        }
+        return packet;
+    }
+
+    /**
+     * 发送的包是否已被访问或替换, 此时需要按 {@link #getPacket()} 重新编码
+     */
+    public boolean isPacketMaterialized() {
+        return packet != null;
+    }
 }
@@ -3,6 +3,8 @@ package com.springwater.easybot.bridge.api.events.raw;
 import com.google.gson.JsonObject;
 import com.springwater.easybot.bridge.BridgeClient;
 import com.springwater.easybot.bridge.api.events.BridgeEvent;
+import com.springwater.easybot.bridge.codec.InboundFrame;
+import com.springwater.easybot.bridge.codec.OutboundCallBack;
 import com.springwater.easybot.bridge.packet.PacketWithCallBackId;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,7 +14,11 @@ import lombok.Setter;
 public class RawExecPacketEvent extends BridgeEvent {
     private PacketWithCallBackId packet;
     private JsonObject body;
-    private JsonObject callBack;
+    private OutboundCallBack outboundCallBack;
+    /**
+     * 原始数据帧
+     */
+    private InboundFrame frame;
 
     /**
      * 如果此值为true 则Bridge内部处理器将忽略此数据包 (谨慎处理)
@@ -22,4 +28,27 @@ public class RawExecPacketEvent extends BridgeEvent {
     public RawExecPacketEvent(BridgeClient client) {
         super(client);
     }
+
+    /**
+     * 获取消息体, 首次访问时才会从原始数据帧构建
+     */
+    public JsonObject getBody() {
+        if (body == null && frame != null) {
+            body = frame.getBody();
+        }
+        return body;
+    }
+
+    /**
+     * 获取回调对象, 首次访问时才会构建
+     */
+    public JsonObject getCallBack() {
+        return outboundCallBack != null ? outboundCallBack.getObject() : null;
+    }
+
+    public void setCallBack(JsonObject callBack) {
+        if (outboundCallBack != null) {
+            outboundCallBack.setObject(callBack);
+        }
+    }
 }
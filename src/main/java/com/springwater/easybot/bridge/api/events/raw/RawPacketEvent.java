@@ -4,6 +4,7 @@ package com.springwater.easybot.bridge.api.events.raw;
 import com.google.gson.JsonObject;
 import com.springwater.easybot.bridge.BridgeClient;
 import com.springwater.easybot.bridge.api.events.BridgeEvent;
+import com.springwater.easybot.bridge.codec.InboundFrame;
 import com.springwater.easybot.bridge.packet.Packet;
 import lombok.Getter;
 import lombok.Setter;
@@ -13,6 +14,10 @@ import lombok.Setter;
 public class RawPacketEvent extends BridgeEvent {
     private Packet packet;
     private JsonObject body;
+    /**
+     * 原始数据帧
+     */
+    private InboundFrame frame;
     /**
      * 跳过内部处理
      */
@@ -20,4 +25,14 @@ public class RawPacketEvent extends BridgeEvent {
     public RawPacketEvent(BridgeClient client) {
         super(client);
     }
+
+    /**
+     * 获取消息体, 首次访问时才会从原始数据帧构建
+     */
+    public JsonObject getBody() {
+        if (body == null && frame != null) {
+            body = frame.getBody();
+        }
+        return body;
+    }
 }
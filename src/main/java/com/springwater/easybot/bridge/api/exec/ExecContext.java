@@ -0,0 +1,48 @@
+package com.springwater.easybot.bridge.api.exec;
+
+import com.google.gson.JsonObject;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.codec.InboundFrame;
+import com.springwater.easybot.bridge.codec.OutboundCallBack;
+import com.springwater.easybot.bridge.packet.PacketWithCallBackId;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+public class ExecContext<T extends PacketWithCallBackId> {
+    /**
+     * 桥接客户端
+     */
+    private final BridgeClient client;
+    /**
+     * 解码后的数据包
+     */
+    private final T packet;
+    /**
+     * 原始数据帧
+     */
+    private final InboundFrame frame;
+    /**
+     * 待发送的回调帧
+     */
+    private final OutboundCallBack outboundCallBack;
+    /**
+     * 回调结果, 其字段会被合并进回调对象
+     */
+    @Setter
+    private Object result;
+
+    public ExecContext(BridgeClient client, T packet, InboundFrame frame, OutboundCallBack outboundCallBack) {
+        this.client = client;
+        this.packet = packet;
+        this.frame = frame;
+        this.outboundCallBack = outboundCallBack;
+    }
+
+    /**
+     * 回调对象, 可直接写入额外字段
+     */
+    public JsonObject getCallBack() {
+        return outboundCallBack.getObject();
+    }
+}
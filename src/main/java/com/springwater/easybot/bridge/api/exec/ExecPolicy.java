@@ -0,0 +1,16 @@
+package com.springwater.easybot.bridge.api.exec;
+
+public enum ExecPolicy {
+    /**
+     * 在网络线程中直接执行, 适用于不会阻塞的轻量操作
+     */
+    INLINE,
+    /**
+     * 在桥接工作线程池中执行, 适用于可能阻塞的操作
+     */
+    WORKER,
+    /**
+     * 交给 {@link com.springwater.easybot.bridge.BridgeBehavior#runOnMainThread(Runnable)} 在服务器主线程执行
+     */
+    MAIN_THREAD
+}
@@ -0,0 +1,22 @@
+package com.springwater.easybot.bridge.api.exec;
+
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.packet.PacketWithCallBackId;
+
+public interface IBridgeExecRegistry {
+    /**
+     * 注册一个操作处理器, 同名操作会被覆盖
+     *
+     * @param operation  操作名 (exec_op)
+     * @param packetType 数据包类型, 使用 {@link PacketWithCallBackId} 表示不需要解析消息体
+     * @param policy     执行策略
+     * @param handler    处理器
+     */
+    <T extends PacketWithCallBackId> void register(String operation, Class<T> packetType, ExecPolicy policy, IExecHandler<T> handler);
+
+    void unregister(String operation);
+
+    static IBridgeExecRegistry getInstance() {
+        return BridgeClient.getExecRegistry();
+    }
+}
@@ -0,0 +1,11 @@
+package com.springwater.easybot.bridge.api.exec;
+
+import com.springwater.easybot.bridge.packet.PacketWithCallBackId;
+
+@FunctionalInterface
+public interface IExecHandler<T extends PacketWithCallBackId> {
+    /**
+     * 处理一个操作, 返回后回调会自动发送给主程序
+     */
+    void handle(ExecContext<T> context) throws Exception;
+}
@@ -0,0 +1,76 @@
+package com.springwater.easybot.bridge.cache;
+
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.packet.GetBindInfoResultPacket;
+import com.springwater.easybot.bridge.packet.GetSocialAccountResultPacket;
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 玩家绑定信息与社交账号的本地缓存
+ * <p>
+ * 收到绑定成功或解绑通知时按玩家名精确失效. 查询期间发生过失效时不写入结果, 避免把失效前的旧数据放回缓存.
+ * 缓存的结果对象由所有调用方共享, 不应修改
+ */
+public final class BindInfoCache {
+    @Getter
+    private final ExpiringLruCache<String, GetBindInfoResultPacket> bindInfo =
+            new ExpiringLruCache<>(ClientProfile::getBindCacheMaxEntries, ClientProfile::getBindCacheTtlMillis);
+    @Getter
+    private final ExpiringLruCache<String, GetSocialAccountResultPacket> socialAccount =
+            new ExpiringLruCache<>(ClientProfile::getBindCacheMaxEntries, ClientProfile::getBindCacheTtlMillis);
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 失效计数, 发起查询前读取, 写入结果时传回
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public GetBindInfoResultPacket getBindInfo(String playerName) {
+        return bindInfo.get(key(playerName));
+    }
+
+    public synchronized void putBindInfo(String playerName, GetBindInfoResultPacket result, long generation) {
+        if (generation == this.generation.get()) {
+            bindInfo.put(key(playerName), result);
+        }
+    }
+
+    public GetSocialAccountResultPacket getSocialAccount(String playerName) {
+        return socialAccount.get(key(playerName));
+    }
+
+    public synchronized void putSocialAccount(String playerName, GetSocialAccountResultPacket result, long generation) {
+        if (generation == this.generation.get()) {
+            socialAccount.put(key(playerName), result);
+        }
+    }
+
+    /**
+     * 玩家的绑定关系发生变化
+     */
+    public synchronized void invalidate(String playerName) {
+        generation.incrementAndGet();
+        String key = key(playerName);
+        bindInfo.remove(key);
+        socialAccount.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        bindInfo.clear();
+        socialAccount.clear();
+    }
+
+    /**
+     * 缓存与合并查询使用的玩家名键
+     */
+    public static String key(String playerName) {
+        // 玩家名不区分大小写, 通知中的大小写可能与查询时不同
+        return playerName == null ? "" : playerName.toLowerCase(Locale.ROOT);
+    }
+}
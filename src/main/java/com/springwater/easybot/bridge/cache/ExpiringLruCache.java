@@ -0,0 +1,126 @@
+package com.springwater.easybot.bridge.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 容量有限并带过期时间的 LRU 缓存
+ * <p>
+ * 访问量不大, 整体加锁即可; 过期条目在读取时淘汰, 超出容量时淘汰最久未访问的条目
+ */
+public final class ExpiringLruCache<K, V> {
+    private static final class Entry<V> {
+        private final V value;
+        private final long expireAt;
+
+        private Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongSupplier maxEntries;
+    private final LongSupplier ttlMillis;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries 最大条目数, 每次写入时读取, 以便运行时调整
+     * @param ttlMillis  条目的默认存活时间 (毫秒), 小于等于 0 时不缓存
+     */
+    public ExpiringLruCache(LongSupplier maxEntries, LongSupplier ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * @return 不存在或已过期时返回 null
+     */
+    public V get(K key) {
+        synchronized (map) {
+            Entry<V> entry = map.get(key);
+            if (entry != null && entry.expireAt - System.nanoTime() <= 0) {
+                map.remove(key);
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlMillis.getAsLong());
+    }
+
+    /**
+     * 以单独的存活时间写入
+     *
+     * @param ttl 存活时间 (毫秒), 小于等于 0 时不缓存
+     */
+    public void put(K key, V value, long ttl) {
+        if (ttl <= 0 || value == null) {
+            return;
+        }
+        long max = maxEntries.getAsLong();
+        synchronized (map) {
+            map.put(key, new Entry<>(value, System.nanoTime() + ttl * 1_000_000L));
+            Iterator<Map.Entry<K, Entry<V>>> iterator = map.entrySet().iterator();
+            while (map.size() > max && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public void remove(K key) {
+        synchronized (map) {
+            map.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (map) {
+            map.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 因超出容量而淘汰的条目数
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * 命中率, 没有访问时为 0
+     */
+    public double getHitRate() {
+        long hit = getHits();
+        long total = hit + getMisses();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+}
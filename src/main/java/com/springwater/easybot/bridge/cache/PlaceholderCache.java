@@ -0,0 +1,267 @@
+package com.springwater.easybot.bridge.cache;
+
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.model.PlaceholderQuery;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 变量查询结果缓存
+ * <p>
+ * 以 (玩家, 查询文本) 为键. 缓存时间取文本中所有变量按 {@link ClientProfile#getPapiCacheRules()} 匹配到的最短时间,
+ * 任一变量不可缓存时整段文本都不缓存. 同一键的并发未命中只展开一次, 其余调用最多等待一个回调超时,
+ * 单条查询与批量查询共用同一张展开中表
+ */
+public final class PlaceholderCache {
+    /**
+     * 实际展开变量
+     */
+    public interface Loader {
+        String load() throws Exception;
+    }
+
+    /**
+     * 批量展开时平台对某一项返回了 null, 原因已由平台记录
+     */
+    public static final class ExpansionFailedException extends Exception {
+        public ExpansionFailedException() {
+            super("变量展开失败");
+        }
+    }
+
+    /**
+     * 一次展开多条查询
+     */
+    public interface BatchLoader {
+        /**
+         * @return 与请求顺序一致的结果, 展开失败的项为 null
+         */
+        List<String> load(List<PlaceholderQuery> queries) throws Exception;
+    }
+
+    @Getter
+    private final ExpiringLruCache<String, String> results =
+            new ExpiringLruCache<>(ClientProfile::getPapiCacheMaxEntries, ClientProfile::getPapiCacheDefaultTtlMillis);
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public String query(String playerName, String text, Loader loader) throws Exception {
+        long ttl = getTtlMillis(text);
+        if (ttl <= 0) {
+            bypassed.increment();
+            return loader.load();
+        }
+
+        String key = playerName + '\0' + text;
+        String cached = results.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.increment();
+            try {
+                // 最多等待一个回调超时, 主程序届时已经不再等待结果
+                return leader.get(ClientProfile.getCallbackTimeoutMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            } catch (TimeoutException e) {
+                throw new TimeoutException("等待变量展开超时: " + text);
+            }
+        }
+        try {
+            String value = loader.load();
+            results.put(key, value, ttl);
+            mine.complete(value);
+            return value;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 批量查询
+     * <p>
+     * 命中缓存的项直接返回; 其他线程正在展开的项等待其结果; 其余的项登记为展开中后交给 {@code loader} 一次展开,
+     * 期间到达的相同查询 (包括单条查询) 会等待这次展开
+     *
+     * @return 与请求顺序一致的结果, 展开失败的项以异常完成. 等待其他线程的项可能尚未完成, 调用方应限制等待时间
+     */
+    public List<CompletableFuture<String>> queryBatch(List<PlaceholderQuery> queries, BatchLoader loader) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(queries.size());
+        List<PlaceholderQuery> misses = new ArrayList<>();
+        List<CompletableFuture<String>> owned = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<Long> ttls = new ArrayList<>();
+        for (PlaceholderQuery query : queries) {
+            long ttl = getTtlMillis(query.getText());
+            String key = null;
+            CompletableFuture<String> mine = new CompletableFuture<>();
+            if (ttl <= 0) {
+                bypassed.increment();
+            } else {
+                key = query.getPlayerName() + '\0' + query.getText();
+                String cached = results.get(key);
+                if (cached != null) {
+                    futures.add(CompletableFuture.completedFuture(cached));
+                    continue;
+                }
+                CompletableFuture<String> leader = inFlight.putIfAbsent(key, mine);
+                if (leader != null) {
+                    coalesced.increment();
+                    futures.add(leader);
+                    continue;
+                }
+            }
+            futures.add(mine);
+            misses.add(query);
+            owned.add(mine);
+            keys.add(key);
+            ttls.add(ttl);
+        }
+        if (misses.isEmpty()) {
+            return futures;
+        }
+
+        try {
+            List<String> expanded = loader.load(misses);
+            for (int i = 0; i < misses.size(); i++) {
+                String value = expanded != null && i < expanded.size() ? expanded.get(i) : null;
+                if (value == null) {
+                    owned.get(i).completeExceptionally(new ExpansionFailedException());
+                    continue;
+                }
+                if (keys.get(i) != null) {
+                    results.put(keys.get(i), value, ttls.get(i));
+                }
+                owned.get(i).complete(value);
+            }
+        } catch (Exception e) {
+            for (CompletableFuture<String> future : owned) {
+                future.completeExceptionally(e);
+            }
+        } finally {
+            for (int i = 0; i < keys.size(); i++) {
+                if (keys.get(i) != null) {
+                    inFlight.remove(keys.get(i), owned.get(i));
+                }
+            }
+        }
+        return futures;
+    }
+
+    /**
+     * 计算一段查询文本的缓存时间
+     *
+     * @return 毫秒, 0 表示不缓存
+     */
+    public long getTtlMillis(String text) {
+        if (text == null) {
+            return 0;
+        }
+        Map<String, Long> rules = ClientProfile.getPapiCacheRules();
+        long defaultTtl = ClientProfile.getPapiCacheDefaultTtlMillis();
+        long ttl = Long.MAX_VALUE;
+        int start = text.indexOf('%');
+        while (start >= 0) {
+            int end = text.indexOf('%', start + 1);
+            if (end < 0) {
+                break;
+            }
+            ttl = Math.min(ttl, ttlOf(text.substring(start + 1, end).toLowerCase(Locale.ROOT), rules, defaultTtl));
+            if (ttl <= 0) {
+                return 0;
+            }
+            start = text.indexOf('%', end + 1);
+        }
+        return ttl == Long.MAX_VALUE ? defaultTtl : ttl;
+    }
+
+    private static long ttlOf(String placeholder, Map<String, Long> rules, long defaultTtl) {
+        Long exact = rules.get(placeholder);
+        if (exact != null) {
+            return exact;
+        }
+        // 多个模式匹配时取字面字符最多的, 即最具体的规则
+        long ttl = defaultTtl;
+        int bestSpecificity = -1;
+        for (Map.Entry<String, Long> rule : rules.entrySet()) {
+            String pattern = rule.getKey();
+            if (pattern.indexOf('*') < 0 || !matches(pattern, placeholder)) {
+                continue;
+            }
+            int specificity = pattern.length() - countWildcards(pattern);
+            if (specificity > bestSpecificity) {
+                bestSpecificity = specificity;
+                ttl = rule.getValue();
+            }
+        }
+        return ttl;
+    }
+
+    private static boolean matches(String pattern, String text) {
+        int p = 0, t = 0, star = -1, mark = 0;
+        while (t < text.length()) {
+            if (p < pattern.length() && pattern.charAt(p) == text.charAt(t)) {
+                p++;
+                t++;
+            } else if (p < pattern.length() && pattern.charAt(p) == '*') {
+                star = p++;
+                mark = t;
+            } else if (star >= 0) {
+                p = star + 1;
+                t = ++mark;
+            } else {
+                return false;
+            }
+        }
+        while (p < pattern.length() && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return p == pattern.length();
+    }
+
+    private static int countWildcards(String pattern) {
+        int count = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            if (pattern.charAt(i) == '*') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void clear() {
+        results.clear();
+    }
+
+    /**
+     * 因不可缓存而直接展开的查询数
+     */
+    public long getBypassed() {
+        return bypassed.sum();
+    }
+
+    /**
+     * 等待其他线程展开结果的查询数
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+}
@@ -0,0 +1,211 @@
+package com.springwater.easybot.bridge.callback;
+
+import com.springwater.easybot.bridge.codec.InboundFrame;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 等待主程序回调的请求表
+ * <p>
+ * 回调编号是单调递增的 36 进制数, 进程内不会重复; 超时由时间轮负责, 回调到达时取消.
+ * 连接断开时调用 {@link #failAll(Throwable)} 让所有等待者立即失败
+ */
+public final class CallbackRegistry {
+    @SuppressWarnings("ClassCanBeRecord") // 需要兼容 Java 8
+    public static final class PendingCallback {
+        @Getter
+        private final String id;
+        @Getter
+        private final CompletableFuture<InboundFrame> future;
+
+        private PendingCallback(String id, CompletableFuture<InboundFrame> future) {
+            this.id = id;
+            this.future = future;
+        }
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<InboundFrame> future = new CompletableFuture<>();
+        private final long startNanos = System.nanoTime();
+        private volatile HashedWheelTimer.Timeout timeout;
+
+        void cancelTimeout() {
+            // 断开连接时可能与登记并发, 此时超时任务尚未设置, 到期后发现已移除会直接忽略
+            HashedWheelTimer.Timeout timeout = this.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+
+    private final HashedWheelTimer timer;
+    private final AtomicLong nextId = new AtomicLong();
+    private final ConcurrentHashMap<String, Entry> pending = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> timedOutByOperation = new ConcurrentHashMap<>();
+
+    public CallbackRegistry(HashedWheelTimer timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * 分配回调编号并登记等待
+     *
+     * @param operation     请求的操作, 用于按操作统计超时
+     * @param timeoutMillis 超时时间, 到期后 future 以 {@link TimeoutException} 失败; 小于等于 0 时立即失败
+     */
+    public PendingCallback register(String operation, long timeoutMillis) {
+        String id = Long.toString(nextId.incrementAndGet(), Character.MAX_RADIX);
+        Entry entry = new Entry();
+        if (timeoutMillis <= 0) {
+            recordTimeout(operation);
+            entry.future.completeExceptionally(new TimeoutException("请求发出前已超过截止时间"));
+            return new PendingCallback(id, entry.future);
+        }
+        pending.put(id, entry);
+        try {
+            entry.timeout = timer.schedule(() -> {
+                if (pending.remove(id, entry)) {
+                    recordTimeout(operation);
+                    entry.future.completeExceptionally(new TimeoutException("等待EasyBot返回结果超时!"));
+                }
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (IllegalStateException e) {
+            pending.remove(id, entry);
+            throw e;
+        }
+        return new PendingCallback(id, entry.future);
+    }
+
+    private void recordTimeout(String operation) {
+        timedOut.increment();
+        timedOutByOperation.computeIfAbsent(operation == null ? "" : operation, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * 交付回调结果
+     *
+     * @return 编号不存在 (已超时或未登记) 时返回 false
+     */
+    public boolean complete(String id, InboundFrame frame) {
+        Entry entry = id == null ? null : pending.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelTimeout();
+        completed.increment();
+        entry.future.complete(frame);
+        return true;
+    }
+
+    /**
+     * 让单个等待者失败, 例如请求没能写出
+     */
+    public boolean fail(String id, Throwable cause) {
+        Entry entry = id == null ? null : pending.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelTimeout();
+        failed.increment();
+        entry.future.completeExceptionally(cause);
+        return true;
+    }
+
+    /**
+     * 让所有等待者失败
+     *
+     * @return 失败的等待者数量
+     */
+    public int failAll(Throwable cause) {
+        int count = 0;
+        for (String id : pending.keySet()) {
+            if (fail(id, cause)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 正在等待回调的请求数
+     */
+    public int getInFlight() {
+        return pending.size();
+    }
+
+    /**
+     * 等待最久的请求已等待的毫秒数, 没有等待者时为 0
+     */
+    public long getOldestAgeMillis() {
+        long now = System.nanoTime();
+        long oldest = 0;
+        for (Entry entry : pending.values()) {
+            oldest = Math.max(oldest, now - entry.startNanos);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(oldest);
+    }
+
+    /**
+     * 所有等待者的平均等待毫秒数, 没有等待者时为 0
+     */
+    public long getAverageAgeMillis() {
+        long now = System.nanoTime();
+        long total = 0;
+        int count = 0;
+        for (Entry entry : pending.values()) {
+            total += now - entry.startNanos;
+            count++;
+        }
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(total / count);
+    }
+
+    /**
+     * 收到回调的请求数
+     */
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * 超时的请求数, 包括发出前就已超过截止时间的请求
+     */
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    /**
+     * 某个操作超时的请求数
+     */
+    public long getTimedOut(String operation) {
+        LongAdder counter = timedOutByOperation.get(operation);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * 按操作统计的超时请求数快照
+     */
+    public Map<String, Long> getTimedOutByOperation() {
+        Map<String, Long> snapshot = new HashMap<>();
+        timedOutByOperation.forEach((operation, counter) -> snapshot.put(operation, counter.sum()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * 因发送失败或断开连接而失败的请求数
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+}
@@ -0,0 +1,281 @@
+package com.springwater.easybot.bridge.callback;
+
+import com.springwater.easybot.bridge.BridgeClient;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 时间轮定时器
+ * <p>
+ * 添加和取消都只是入队, 由单个工作线程按刻度批量处理, 适合大量很少真正触发的超时.
+ * 精度为一个刻度, 任务在工作线程上执行, 不应阻塞
+ */
+public final class HashedWheelTimer {
+    private static final int ST_INIT = 0;
+    private static final int ST_STARTED = 1;
+    private static final int ST_STOPPED = 2;
+
+    private final String threadName;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger state = new AtomicInteger(ST_INIT);
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private volatile long startTime;
+    private Thread worker;
+
+    /**
+     * @param threadName 工作线程名称
+     * @param tick       刻度长度
+     * @param unit       刻度单位
+     * @param ticksPerWheel 每圈的刻度数, 向上取整为 2 的幂
+     */
+    public HashedWheelTimer(String threadName, long tick, TimeUnit unit, int ticksPerWheel) {
+        if (tick <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("tick 和 ticksPerWheel 必须大于 0");
+        }
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.threadName = threadName;
+        this.tickNanos = unit.toNanos(tick);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 在指定延迟后执行任务, 首次调用时启动工作线程
+     *
+     * @throws IllegalStateException 定时器已停止
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        start();
+        long deadline = System.nanoTime() + unit.toNanos(delay) - startTime;
+        Timeout timeout = new Timeout(this, task, deadline);
+        pendingCount.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 尚未触发也未取消的任务数
+     */
+    public int getPendingTimeouts() {
+        return pendingCount.get();
+    }
+
+    /**
+     * 停止工作线程, 未触发的任务不再执行
+     */
+    public void stop() {
+        if (state.getAndSet(ST_STOPPED) == ST_STARTED) {
+            worker.interrupt();
+        }
+    }
+
+    private void start() {
+        switch (state.get()) {
+            case ST_INIT:
+                synchronized (this) {
+                    if (state.get() == ST_INIT) {
+                        startTime = System.nanoTime();
+                        worker = new Thread(this::run, threadName);
+                        worker.setDaemon(true);
+                        state.set(ST_STARTED);
+                        worker.start();
+                    }
+                }
+                if (state.get() == ST_STOPPED) {
+                    throw new IllegalStateException("定时器已停止");
+                }
+                break;
+            case ST_STARTED:
+                break;
+            default:
+                throw new IllegalStateException("定时器已停止");
+        }
+    }
+
+    private void run() {
+        long tick = 0;
+        while (state.get() == ST_STARTED) {
+            if (!waitForNextTick(tick)) {
+                break;
+            }
+            processCancelled();
+            transferPending(tick);
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    /**
+     * @return 被停止时返回 false
+     */
+    private boolean waitForNextTick(long tick) {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startTime;
+            long sleepMillis = (deadline - now + 999_999) / 1_000_000;
+            if (sleepMillis <= 0) {
+                return true;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (state.get() == ST_STOPPED) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void processCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferPending(long tick) {
+        // 限制单个刻度搬运的数量, 避免突发时拖慢到期处理
+        for (int i = 0; i < 100_000; i++) {
+            Timeout timeout = pending.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() != Timeout.ST_INIT) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // 已经过期的任务放进当前刻度, 本轮立即执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public static final class Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 取消任务
+         *
+         * @return 任务已触发或已取消时返回 false
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.pendingCount.decrementAndGet();
+            // 从槽位中摘除交给工作线程, 避免与到期处理竞争链表
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            timer.pendingCount.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                BridgeClient.getLogger().error("执行定时任务失败: " + t);
+            }
+        }
+    }
+
+    /**
+     * 时间轮槽位, 双向链表只由工作线程访问
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
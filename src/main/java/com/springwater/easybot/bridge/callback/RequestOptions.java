@@ -0,0 +1,82 @@
+package com.springwater.easybot.bridge.callback;
+
+import com.springwater.easybot.bridge.ClientProfile;
+import lombok.Getter;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单次请求的等待选项
+ * <p>
+ * 未指定时使用 {@link ClientProfile#getOperationTimeoutMillis(String)} 中该操作的默认超时;
+ * 未指定回调线程时结果在收到回调的网络线程或超时线程上交付, 后续处理不应阻塞
+ */
+@SuppressWarnings("ClassCanBeRecord") // 需要兼容 Java 8
+public final class RequestOptions {
+    public static final RequestOptions DEFAULT = new RequestOptions(0, 0, null);
+
+    /**
+     * 相对超时 (毫秒), 0 表示未指定
+     */
+    private final long timeoutMillis;
+    /**
+     * 绝对截止时间 ({@link System#nanoTime()}), 0 表示未指定
+     */
+    private final long deadlineNanos;
+    /**
+     * 交付结果的线程, null 表示在完成的线程上直接交付
+     */
+    @Getter
+    private final Executor executor;
+
+    private RequestOptions(long timeoutMillis, long deadlineNanos, Executor executor) {
+        this.timeoutMillis = timeoutMillis;
+        this.deadlineNanos = deadlineNanos;
+        this.executor = executor;
+    }
+
+    /**
+     * 从发出请求时开始计算的超时
+     */
+    public static RequestOptions timeout(long timeout, TimeUnit unit) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("timeout 必须大于 0");
+        }
+        return new RequestOptions(unit.toMillis(timeout), 0, null);
+    }
+
+    /**
+     * 以 {@link System#nanoTime()} 表示的截止时间, 适合把上游剩余的时间继续传给下游请求
+     */
+    public static RequestOptions deadline(long deadlineNanos) {
+        return new RequestOptions(0, deadlineNanos, null);
+    }
+
+    /**
+     * 使用默认超时, 在指定线程上交付结果, 例如服务器主线程的调度器
+     */
+    public static RequestOptions completeOn(Executor executor) {
+        return DEFAULT.withExecutor(executor);
+    }
+
+    /**
+     * 保留超时设置, 改为在指定线程上交付结果
+     */
+    public RequestOptions withExecutor(Executor executor) {
+        return new RequestOptions(timeoutMillis, deadlineNanos, executor);
+    }
+
+    /**
+     * 计算此刻剩余的等待时间
+     *
+     * @param operation 请求的操作, 未指定超时时用于查找默认值
+     * @return 剩余毫秒数, 截止时间已过时为 0
+     */
+    public long remainingMillis(String operation) {
+        if (deadlineNanos != 0) {
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+        }
+        return timeoutMillis > 0 ? timeoutMillis : ClientProfile.getOperationTimeoutMillis(operation);
+    }
+}
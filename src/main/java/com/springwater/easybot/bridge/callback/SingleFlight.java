@@ -0,0 +1,90 @@
+package com.springwater.easybot.bridge.callback;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 合并相同的进行中请求
+ * <p>
+ * 同一个键在上一次请求完成前再次请求时, 不再发出新的请求而是共享上一次的结果.
+ * 共享者得到同一个结果对象, 超时以最先发出的请求为准; 请求完成后立即移除, 之后的请求会重新发出
+ */
+public final class SingleFlight {
+    private final ConcurrentHashMap<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder saved = new LongAdder();
+
+    /**
+     * 执行请求, 相同键的请求正在进行时共享其结果
+     *
+     * @param key      请求的键, 应包含操作名与全部参数
+     * @param call     实际发出请求
+     * @param executor 交付结果的线程, null 表示在完成的线程上直接交付
+     * @return 每个调用方独立的 future, 取消它不会影响其他共享者
+     */
+    @SuppressWarnings("unchecked")
+    public <V> CompletableFuture<V> execute(String key, Supplier<CompletableFuture<V>> call, Executor executor) {
+        CompletableFuture<V> shared = (CompletableFuture<V>) inFlight.get(key);
+        if (shared == null) {
+            CompletableFuture<V> leader = new CompletableFuture<>();
+            shared = (CompletableFuture<V>) inFlight.putIfAbsent(key, leader);
+            if (shared == null) {
+                executed.increment();
+                start(key, leader, call);
+                return view(leader, executor);
+            }
+        }
+        saved.increment();
+        return view(shared, executor);
+    }
+
+    private <V> void start(String key, CompletableFuture<V> leader, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            inFlight.remove(key, leader);
+            leader.completeExceptionally(e);
+            return;
+        }
+        result.whenComplete((value, ex) -> {
+            // 先移除再完成, 完成后到达的请求不会拿到已经过期的结果
+            inFlight.remove(key, leader);
+            if (ex != null) {
+                leader.completeExceptionally(ex);
+            } else {
+                leader.complete(value);
+            }
+        });
+    }
+
+    private static <V> CompletableFuture<V> view(CompletableFuture<V> shared, Executor executor) {
+        return executor == null ? shared.whenComplete((value, ex) -> {
+        }) : shared.whenCompleteAsync((value, ex) -> {
+        }, executor);
+    }
+
+    /**
+     * 正在进行的不同请求数
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * 实际发出的请求数
+     */
+    public long getExecuted() {
+        return executed.sum();
+    }
+
+    /**
+     * 因共享结果而省下的往返次数
+     */
+    public long getSaved() {
+        return saved.sum();
+    }
+}
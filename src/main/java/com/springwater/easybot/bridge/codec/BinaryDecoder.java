@@ -0,0 +1,122 @@
+package com.springwater.easybot.bridge.codec;
+
+import com.google.gson.*;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 二进制帧解码器, 直接从字节数组构建 {@link JsonElement}
+ */
+public final class BinaryDecoder {
+    private final byte[] data;
+    private final int limit;
+    private int position;
+
+    private BinaryDecoder(byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * 解码一个完整的二进制帧
+     *
+     * @throws JsonParseException 版本不匹配或数据不完整
+     */
+    public static JsonElement decode(byte[] data, int offset, int length) {
+        BinaryDecoder decoder = new BinaryDecoder(data, offset, length);
+        try {
+            int version = decoder.readByte();
+            if (version != BinaryDictionary.VERSION) {
+                throw new JsonParseException("不支持的二进制帧版本: " + version);
+            }
+            JsonElement element = decoder.readValue(decoder.readByte());
+            if (decoder.position != decoder.limit) {
+                throw new JsonParseException("二进制帧末尾有多余数据");
+            }
+            return element;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new JsonParseException("二进制帧格式错误", e);
+        }
+    }
+
+    private int readByte() {
+        if (position >= limit) throw new IndexOutOfBoundsException("帧已结束");
+        return data[position++] & 0xFF;
+    }
+
+    private long readVarint() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IllegalArgumentException("变长整数过长");
+    }
+
+    private int readLength() {
+        long length = readVarint();
+        if (length < 0 || length > limit - position) throw new IndexOutOfBoundsException("长度超出帧范围");
+        return (int) length;
+    }
+
+    private String readUtf8() {
+        int length = readLength();
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    private JsonElement readValue(int tag) {
+        switch (tag) {
+            case BinaryTag.NULL:
+                return JsonNull.INSTANCE;
+            case BinaryTag.FALSE:
+                return new JsonPrimitive(false);
+            case BinaryTag.TRUE:
+                return new JsonPrimitive(true);
+            case BinaryTag.INT: {
+                long zigzag = readVarint();
+                return new JsonPrimitive((zigzag >>> 1) ^ -(zigzag & 1));
+            }
+            case BinaryTag.DOUBLE: {
+                long bits = 0;
+                for (int i = 0; i < 8; i++) {
+                    bits = (bits << 8) | readByte();
+                }
+                return new JsonPrimitive(Double.longBitsToDouble(bits));
+            }
+            case BinaryTag.STRING:
+                return new JsonPrimitive(readUtf8());
+            case BinaryTag.STRING_REF:
+                return new JsonPrimitive(BinaryDictionary.value((int) readVarint()));
+            case BinaryTag.OBJECT: {
+                JsonObject object = new JsonObject();
+                int next;
+                while ((next = readByte()) != BinaryTag.END) {
+                    String key;
+                    if (next == BinaryTag.KEY_REF) {
+                        key = BinaryDictionary.key((int) readVarint());
+                    } else if (next == BinaryTag.KEY) {
+                        key = readUtf8();
+                    } else {
+                        throw new IllegalArgumentException("对象中缺少字段名, 标记: " + next);
+                    }
+                    object.add(key, readValue(readByte()));
+                }
+                return object;
+            }
+            case BinaryTag.ARRAY: {
+                JsonArray array = new JsonArray();
+                int next;
+                while ((next = readByte()) != BinaryTag.END) {
+                    array.add(readValue(next));
+                }
+                return array;
+            }
+            default:
+                throw new IllegalArgumentException("未知的类型标记: " + tag);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.springwater.easybot.bridge.codec;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 二进制编码的静态字典
+ * <p>
+ * 常用字段名与操作名以下标代替字符串. 两端必须使用同一版本的字典, 列表只能在末尾追加, 追加后需提升 {@link #VERSION}
+ */
+public final class BinaryDictionary {
+    /**
+     * 字典与编码格式的版本, 写在每个二进制帧的第一个字节
+     */
+    public static final int VERSION = 1;
+
+    private static final String[] KEYS = {
+            "op", "callback_id", "exec_op", "token", "player_name", "player_uuid", "player_ip", "player", "message",
+            "use_command", "text", "success", "command", "enable_papi", "name", "uuid", "ip", "players", "list",
+            "server_name", "server_version", "plugin_version", "server_description", "is_papi_supported",
+            "is_command_supported", "has_geyser", "is_online_mode", "support_get_plugin_list", "support_batch",
+            "support_state_delta", "identifier", "method", "body", "result", "error", "error_message", "extensions",
+            "installed", "enabled", "authenticated", "module_name", "account_id", "account_name", "kick_message",
+            "sync_mode", "sync_money", "type", "data", "extra", "raw", "killer", "is_enter", "joined", "left",
+            "packets", "interval", "version", "system", "session_id", "plugins", "manifest", "description", "author",
+            "required_plugins", "rpc", "displayName", "fullMethodClassName", "bedrock", "player_name_raw",
+            "query_text", "code", "time", "support_binary", "deadline_ms", "support_papi_batch", "since_version",
+            "delta", "unchanged", "queries", "results", "skin_url"
+    };
+
+    private static final String[] VALUES = {
+            "SYNC_MESSAGE", "SYNC_DEATH_MESSAGE", "SYNC_ENTER_EXIT_MESSAGE", "REPORT_PLAYER", "DATA_RECORD",
+            "SERVER_STATE_CHANGED", "SERVER_STATE_DELTA", "PLAYER_JOIN", "GET_BIND_INFO", "GET_NEW_VERSION",
+            "GET_SOCIAL_ACCOUNT", "INSTALLED_PLUGIN", "NEED_SYNC_SETTING", "START_BIND", "RPC_CALL",
+            "GET_SERVER_INFO", "UN_BIND_NOTIFY", "BIND_SUCCESS_NOTIFY", "PLACEHOLDER_API_QUERY", "RUN_COMMAND",
+            "SEND_TO_CHAT", "SYNC_SETTINGS_UPDATED", "PLAYER_LIST", "GET_EXTENSIONS", "MODULE_INSTALLED",
+            "MODULE_ENABLED", "IS_AUTHENTICATED", "BATCH", "", "PLACEHOLDER_API_BATCH_QUERY"
+    };
+
+    private static final Map<String, Integer> KEY_IDS = index(KEYS);
+    private static final Map<String, Integer> VALUE_IDS = index(VALUES);
+
+    private BinaryDictionary() {
+    }
+
+    private static Map<String, Integer> index(String[] table) {
+        Map<String, Integer> ids = new HashMap<>(table.length * 2);
+        for (int i = 0; i < table.length; i++) {
+            ids.put(table[i], i);
+        }
+        return ids;
+    }
+
+    /**
+     * @return 字段名的下标, 不在字典中时返回 -1
+     */
+    static int keyId(String key) {
+        Integer id = KEY_IDS.get(key);
+        return id == null ? -1 : id;
+    }
+
+    static String key(int id) {
+        if (id < 0 || id >= KEYS.length) throw new IllegalArgumentException("未知的字段下标: " + id);
+        return KEYS[id];
+    }
+
+    /**
+     * @return 字符串值的下标, 不在字典中时返回 -1
+     */
+    static int valueId(String value) {
+        Integer id = VALUE_IDS.get(value);
+        return id == null ? -1 : id;
+    }
+
+    static String value(int id) {
+        if (id < 0 || id >= VALUES.length) throw new IllegalArgumentException("未知的字符串下标: " + id);
+        return VALUES[id];
+    }
+}
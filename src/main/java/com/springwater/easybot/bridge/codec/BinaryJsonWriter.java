@@ -0,0 +1,187 @@
+package com.springwater.easybot.bridge.codec;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import com.springwater.easybot.bridge.utils.GsonUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * 以二进制格式输出的 {@link JsonWriter}, 使现有的 TypeAdapter 无需修改即可编码为二进制
+ */
+final class BinaryJsonWriter extends JsonWriter {
+    private static final Writer UNUSED = new Writer() {
+        @Override
+        public void write(char[] buffer, int offset, int len) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final ByteFrameBuffer out;
+    private String deferredName;
+
+    BinaryJsonWriter(ByteFrameBuffer out) {
+        super(UNUSED);
+        this.out = out;
+    }
+
+    private void writeDeferredName() {
+        if (deferredName == null) return;
+        int id = BinaryDictionary.keyId(deferredName);
+        if (id >= 0) {
+            out.write(BinaryTag.KEY_REF);
+            out.writeVarint(id);
+        } else {
+            out.write(BinaryTag.KEY);
+            out.writeUtf8(deferredName);
+        }
+        deferredName = null;
+    }
+
+    @Override
+    public JsonWriter beginArray() {
+        writeDeferredName();
+        out.write(BinaryTag.ARRAY);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() {
+        out.write(BinaryTag.END);
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() {
+        writeDeferredName();
+        out.write(BinaryTag.OBJECT);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() {
+        if (deferredName != null) {
+            throw new IllegalStateException("字段 " + deferredName + " 没有值");
+        }
+        out.write(BinaryTag.END);
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) {
+        if (name == null) throw new NullPointerException("name == null");
+        if (deferredName != null) throw new IllegalStateException("字段 " + deferredName + " 没有值");
+        deferredName = name;
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) {
+        if (value == null) return nullValue();
+        writeDeferredName();
+        int id = BinaryDictionary.valueId(value);
+        if (id >= 0) {
+            out.write(BinaryTag.STRING_REF);
+            out.writeVarint(id);
+        } else {
+            out.write(BinaryTag.STRING);
+            out.writeUtf8(value);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter jsonValue(String value) throws IOException {
+        if (value == null) return nullValue();
+        GsonUtils.write(this, JsonParser.parseString(value));
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() {
+        if (deferredName != null && !getSerializeNulls()) {
+            deferredName = null;
+            return this;
+        }
+        writeDeferredName();
+        out.write(BinaryTag.NULL);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) {
+        writeDeferredName();
+        out.write(value ? BinaryTag.TRUE : BinaryTag.FALSE);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) {
+        return value == null ? nullValue() : value(value.booleanValue());
+    }
+
+    @Override
+    public JsonWriter value(float value) {
+        return value((double) value);
+    }
+
+    @Override
+    public JsonWriter value(double value) {
+        if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value))) {
+            throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+        }
+        writeDeferredName();
+        out.write(BinaryTag.DOUBLE);
+        out.writeDouble(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) {
+        writeDeferredName();
+        out.write(BinaryTag.INT);
+        out.writeVarint((value << 1) ^ (value >> 63));
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) {
+        if (value == null) return nullValue();
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return value(value.longValue());
+        }
+        if (!(value instanceof Double) && !(value instanceof Float)) {
+            // 来自文本的数字 (如 LazilyParsedNumber) 在没有小数部分时保持为整数
+            String text = value.toString();
+            if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+                try {
+                    BigInteger integer = new BigDecimal(text).toBigIntegerExact();
+                    if (integer.bitLength() < 64) {
+                        return value(integer.longValue());
+                    }
+                } catch (NumberFormatException | ArithmeticException ignored) {
+                }
+            }
+        }
+        return value(value.doubleValue());
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
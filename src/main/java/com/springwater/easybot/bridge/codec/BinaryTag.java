@@ -0,0 +1,25 @@
+package com.springwater.easybot.bridge.codec;
+
+/**
+ * 二进制编码的类型标记
+ * <p>
+ * 帧格式: 版本字节 + 一个值. 对象内依次为 (字段名, 值), 以 {@link #END} 结束; 整数为 zigzag 变长编码,
+ * 字符串为变长长度 + UTF-8 字节
+ */
+final class BinaryTag {
+    static final int NULL = 0x00;
+    static final int FALSE = 0x01;
+    static final int TRUE = 0x02;
+    static final int INT = 0x03;
+    static final int DOUBLE = 0x04;
+    static final int STRING = 0x05;
+    static final int STRING_REF = 0x06;
+    static final int OBJECT = 0x07;
+    static final int ARRAY = 0x08;
+    static final int END = 0x09;
+    static final int KEY = 0x0A;
+    static final int KEY_REF = 0x0B;
+
+    private BinaryTag() {
+    }
+}
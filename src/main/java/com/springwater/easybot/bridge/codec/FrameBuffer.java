@@ -0,0 +1,88 @@
+package com.springwater.easybot.bridge.codec;
+
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * 可复用的字符缓冲区, 供编码器按线程复用以减少每帧的分配
+ */
+final class FrameBuffer extends Writer {
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * 超过此容量的缓冲区在复位时会被收缩, 避免偶发的大包长期占用内存
+     */
+    private static final int RETAIN_CAPACITY = 64 * 1024;
+
+    private char[] chars = new char[INITIAL_CAPACITY];
+    private int length;
+
+    void reset() {
+        length = 0;
+        if (chars.length > RETAIN_CAPACITY) {
+            chars = new char[INITIAL_CAPACITY];
+        }
+    }
+
+    int length() {
+        return length;
+    }
+
+    void setLength(int length) {
+        this.length = length;
+    }
+
+    char charAt(int index) {
+        return chars[index];
+    }
+
+    void setCharAt(int index, char c) {
+        chars[index] = c;
+    }
+
+    private void ensureCapacity(int extra) {
+        int required = length + extra;
+        if (required > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(required, chars.length << 1));
+        }
+    }
+
+    @Override
+    public void write(int c) {
+        ensureCapacity(1);
+        chars[length++] = (char) c;
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int len) {
+        ensureCapacity(len);
+        System.arraycopy(buffer, offset, chars, length, len);
+        length += len;
+    }
+
+    @Override
+    public void write(String str, int offset, int len) {
+        ensureCapacity(len);
+        str.getChars(offset, offset + len, chars, length);
+        length += len;
+    }
+
+    @Override
+    public Writer append(CharSequence csq) {
+        String str = String.valueOf(csq);
+        write(str, 0, str.length());
+        return this;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,243 @@
+package com.springwater.easybot.bridge.codec;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.springwater.easybot.bridge.OpCode;
+import com.springwater.easybot.bridge.packet.Packet;
+import com.springwater.easybot.bridge.packet.PacketWithCallBackId;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 入站数据帧
+ * <p>
+ * 解码时只用流式读取器嗅探路由字段 (op / callback_id / exec_op), 原始文本保留在帧中,
+ * 完整的 {@link JsonObject} 或具体数据包只有在真正被使用时才会构建. 首次映射的结果会被缓存,
+ * 只有以其他类型再次映射时才会构建消息体, 因此原始文本最多被完整解析两次
+ */
+public final class InboundFrame {
+    private static final LongAdder decodedFrames = new LongAdder();
+    private static final LongAdder textParses = new LongAdder();
+
+    /**
+     * 原始消息, 二进制帧为 null
+     */
+    @Getter
+    private final String raw;
+    @Getter
+    private final OpCode opCode;
+    @Getter
+    private final String callBackId;
+    @Getter
+    private final String operation;
+
+    private volatile JsonObject body;
+    /**
+     * 首次直接从原始文本映射出的数据包
+     */
+    private volatile Mapped mapped;
+
+    @SuppressWarnings("ClassCanBeRecord") // 需要兼容 Java 8
+    private static final class Mapped {
+        private final Class<?> type;
+        private final Object value;
+
+        private Mapped(Class<?> type, Object value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    private InboundFrame(String raw, OpCode opCode, String callBackId, String operation) {
+        this.raw = raw;
+        this.opCode = opCode;
+        this.callBackId = callBackId;
+        this.operation = operation;
+    }
+
+    /**
+     * 嗅探一条文本消息的信封
+     *
+     * @return 解析结果, 如果消息不是一个 JSON 对象则返回 null
+     */
+    public static InboundFrame decode(String message) {
+        decodedFrames.increment();
+        OpCode opCode = null;
+        String callBackId = null;
+        String operation = null;
+        try (JsonReader reader = new JsonReader(new StringReader(message))) {
+            reader.setLenient(true);
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return null;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "op":
+                        opCode = readOpCode(reader);
+                        break;
+                    case "callback_id":
+                        callBackId = readString(reader);
+                        break;
+                    case "exec_op":
+                        operation = readString(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            return null;
+        }
+        return new InboundFrame(message, opCode, callBackId, operation);
+    }
+
+    /**
+     * 解码一个二进制帧, 消息体在解码时直接构建, 之后的映射都基于这棵树
+     *
+     * @return 解析结果, 如果帧格式错误或不是一个对象则返回 null
+     */
+    public static InboundFrame decodeBinary(byte[] payload, int offset, int length) {
+        decodedFrames.increment();
+        JsonElement element;
+        try {
+            element = BinaryDecoder.decode(payload, offset, length);
+        } catch (JsonParseException e) {
+            return null;
+        }
+        if (!element.isJsonObject()) {
+            return null;
+        }
+        JsonObject object = element.getAsJsonObject();
+        OpCode opCode = null;
+        JsonElement op = object.get("op");
+        if (op != null && op.isJsonPrimitive() && op.getAsJsonPrimitive().isNumber()) {
+            opCode = OpCode.fromValue(op.getAsInt());
+        }
+        InboundFrame frame = new InboundFrame(null, opCode, primitiveString(object.get("callback_id")), primitiveString(object.get("exec_op")));
+        frame.body = object;
+        return frame;
+    }
+
+    private static String primitiveString(JsonElement element) {
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+
+    /**
+     * 获取完整的消息体, 首次调用时才会解析
+     */
+    public JsonObject getBody() {
+        JsonObject result = body;
+        if (result == null) {
+            synchronized (this) {
+                result = body;
+                if (result == null) {
+                    textParses.increment();
+                    JsonElement element = JsonParser.parseString(raw);
+                    result = element.isJsonObject() ? element.getAsJsonObject() : new JsonObject();
+                    body = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 消息体是否已经被构建
+     */
+    public boolean isBodyMaterialized() {
+        return body != null;
+    }
+
+    /**
+     * 将消息映射为具体的数据包
+     * <p>
+     * 如果消息体已经构建则基于树映射, 否则直接从原始文本解析, 不会额外构建 {@link JsonObject}.
+     * 从原始文本映射的结果由帧持有, 以相同类型再次映射时直接返回同一个实例; 以其他类型映射时才构建消息体
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T as(Gson gson, Class<T> type) {
+        JsonObject materialized = body;
+        if (materialized != null) {
+            return gson.fromJson(materialized, type);
+        }
+        synchronized (this) {
+            Mapped previous = mapped;
+            if (previous != null) {
+                if (previous.type == type) {
+                    return (T) previous.value;
+                }
+                return gson.fromJson(getBody(), type);
+            }
+            textParses.increment();
+            T value = gson.fromJson(raw, type);
+            mapped = new Mapped(type, value);
+            return value;
+        }
+    }
+
+    /**
+     * 构造信封 (不涉及 JSON 解析)
+     */
+    public Packet toPacket() {
+        Packet packet = new Packet();
+        packet.setOpCode(opCode);
+        return packet;
+    }
+
+    /**
+     * 构造带回调 ID 的信封 (不涉及 JSON 解析)
+     */
+    public PacketWithCallBackId toPacketWithCallBackId() {
+        PacketWithCallBackId packet = new PacketWithCallBackId();
+        packet.setOpCode(opCode);
+        packet.setCallBackId(callBackId);
+        packet.setOperation(operation);
+        return packet;
+    }
+
+    /**
+     * 已解码的帧数量
+     */
+    public static long getDecodedFrames() {
+        return decodedFrames.sum();
+    }
+
+    /**
+     * 文本被完整解析的次数 (信封嗅探不计入)
+     */
+    public static long getTextParses() {
+        return textParses.sum();
+    }
+
+    private static OpCode readOpCode(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+            reader.skipValue();
+            return null;
+        }
+        return OpCode.fromValue(reader.nextInt());
+    }
+
+    private static String readString(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BEGIN_OBJECT || token == JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return null;
+        }
+        return reader.nextString();
+    }
+}
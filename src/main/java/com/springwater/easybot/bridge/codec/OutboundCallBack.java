@@ -0,0 +1,54 @@
+package com.springwater.easybot.bridge.codec;
+
+import com.google.gson.JsonObject;
+import com.springwater.easybot.bridge.OpCode;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 待发送的回调帧
+ * <p>
+ * 回调对象仅在被访问时才会构建, 未被访问的回调由 {@link OutboundEncoder} 直接写出信封与结果
+ */
+public final class OutboundCallBack {
+    @Getter
+    private final String callBackId;
+    @Getter
+    private final String operation;
+    private JsonObject object;
+    /**
+     * 回调结果, 其字段会被合并进回调对象
+     */
+    @Getter
+    @Setter
+    private Object result;
+
+    public OutboundCallBack(String callBackId, String operation) {
+        this.callBackId = callBackId;
+        this.operation = operation;
+    }
+
+    /**
+     * 获取回调对象, 首次访问时才会构建
+     */
+    public JsonObject getObject() {
+        if (object == null) {
+            object = new JsonObject();
+            object.addProperty("op", OpCode.CallBack.getValue());
+            object.addProperty("callback_id", callBackId);
+            object.addProperty("exec_op", operation);
+        }
+        return object;
+    }
+
+    /**
+     * 替换回调对象
+     */
+    public void setObject(JsonObject object) {
+        this.object = object;
+    }
+
+    public boolean isObjectMaterialized() {
+        return object != null;
+    }
+}
@@ -0,0 +1,239 @@
+package com.springwater.easybot.bridge.codec;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+import com.springwater.easybot.bridge.OpCode;
+import com.springwater.easybot.bridge.packet.HeartbeatPacket;
+import com.springwater.easybot.bridge.packet.PacketWithCallBackId;
+import com.springwater.easybot.bridge.utils.GsonUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 出站数据帧编码器
+ * <p>
+ * 直接通过 TypeAdapter 把数据包写入按线程复用的缓冲区, 不再经过 toJsonTree + merge + toJson
+ */
+public final class OutboundEncoder {
+    /**
+     * 预编码的心跳帧
+     */
+    public static final String HEARTBEAT = "{\"op\":" + OpCode.HeartBeat.getValue() + "}";
+
+    private static final LongAdder encodedFrames = new LongAdder();
+    private static final LongAdder treeFallbacks = new LongAdder();
+
+    private final Gson gson;
+    private final ThreadLocal<FrameBuffer> buffers = ThreadLocal.withInitial(FrameBuffer::new);
+    private final ThreadLocal<ByteFrameBuffer> byteBuffers = ThreadLocal.withInitial(ByteFrameBuffer::new);
+    private final byte[] binaryHeartbeat;
+
+    public OutboundEncoder(Gson gson) {
+        this.gson = gson;
+        ByteFrameBuffer buffer = new ByteFrameBuffer();
+        buffer.write(BinaryDictionary.VERSION);
+        BinaryJsonWriter writer = new BinaryJsonWriter(buffer);
+        writer.beginObject();
+        writer.name("op");
+        writer.value(OpCode.HeartBeat.getValue());
+        writer.endObject();
+        this.binaryHeartbeat = buffer.toByteArray();
+    }
+
+    /**
+     * 编码一个数据包
+     */
+    public String encode(Object packet) throws IOException {
+        encodedFrames.increment();
+        if (packet.getClass() == HeartbeatPacket.class) {
+            return HEARTBEAT;
+        }
+        if (packet instanceof OutboundCallBack) {
+            return encodeCallBack((OutboundCallBack) packet);
+        }
+        FrameBuffer buffer = buffers.get();
+        buffer.reset();
+        write(buffer, packet);
+        return buffer.toString();
+    }
+
+    private String encodeCallBack(OutboundCallBack callBack) throws IOException {
+        Object result = callBack.getResult();
+        if (callBack.isObjectMaterialized() || result instanceof PacketWithCallBackId || result instanceof JsonObject) {
+            // 回调对象已被访问或结果可能与信封字段重名, 按原有方式合并以保持字段覆盖语义
+            treeFallbacks.increment();
+            JsonObject object = callBack.getObject();
+            if (result != null) {
+                GsonUtils.merge(gson, object, result);
+            }
+            FrameBuffer buffer = buffers.get();
+            buffer.reset();
+            write(buffer, object);
+            return buffer.toString();
+        }
+
+        FrameBuffer buffer = buffers.get();
+        buffer.reset();
+        JsonWriter writer = gson.newJsonWriter(buffer);
+        writer.beginObject();
+        writer.name("op").value(OpCode.CallBack.getValue());
+        writer.name("callback_id").value(callBack.getCallBackId());
+        writer.name("exec_op").value(callBack.getOperation());
+        writer.flush();
+        if (result != null) {
+            appendFields(buffer, result);
+        }
+        buffer.write('}');
+        return buffer.toString();
+    }
+
+    /**
+     * 把已编码的数据帧合并为一个批量帧
+     */
+    public String encodeBatch(String operation, List<String> frames) throws IOException {
+        encodedFrames.increment();
+        FrameBuffer buffer = buffers.get();
+        buffer.reset();
+        JsonWriter writer = gson.newJsonWriter(buffer);
+        writer.beginObject();
+        writer.name("op").value(OpCode.Packet.getValue());
+        writer.name("callback_id").value("");
+        writer.name("exec_op").value(operation);
+        writer.name("packets").beginArray();
+        for (String frame : frames) {
+            writer.jsonValue(frame);
+        }
+        writer.endArray();
+        writer.endObject();
+        return buffer.toString();
+    }
+
+    /**
+     * 以二进制格式编码一个数据包, 规则与 {@link #encode(Object)} 相同
+     */
+    public byte[] encodeBinary(Object packet) throws IOException {
+        encodedFrames.increment();
+        if (packet.getClass() == HeartbeatPacket.class) {
+            return binaryHeartbeat.clone();
+        }
+        ByteFrameBuffer buffer = byteBuffers.get();
+        buffer.reset();
+        buffer.write(BinaryDictionary.VERSION);
+        if (packet instanceof OutboundCallBack) {
+            OutboundCallBack callBack = (OutboundCallBack) packet;
+            Object result = callBack.getResult();
+            if (callBack.isObjectMaterialized() || result instanceof PacketWithCallBackId || result instanceof JsonObject) {
+                treeFallbacks.increment();
+                JsonObject object = callBack.getObject();
+                if (result != null) {
+                    GsonUtils.merge(gson, object, result);
+                }
+                writeBinary(buffer, object);
+                return buffer.toByteArray();
+            }
+            BinaryJsonWriter writer = newBinaryWriter(buffer);
+            writer.beginObject();
+            writer.name("op").value(OpCode.CallBack.getValue());
+            writer.name("callback_id").value(callBack.getCallBackId());
+            writer.name("exec_op").value(callBack.getOperation());
+            if (result != null) {
+                appendBinaryFields(buffer, result);
+            }
+            writer.endObject();
+            return buffer.toByteArray();
+        }
+        writeBinary(buffer, packet);
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 把已编码的二进制帧合并为一个批量帧
+     */
+    public byte[] encodeBinaryBatch(String operation, List<byte[]> frames) throws IOException {
+        encodedFrames.increment();
+        ByteFrameBuffer buffer = byteBuffers.get();
+        buffer.reset();
+        buffer.write(BinaryDictionary.VERSION);
+        BinaryJsonWriter writer = newBinaryWriter(buffer);
+        writer.beginObject();
+        writer.name("op").value(OpCode.Packet.getValue());
+        writer.name("callback_id").value("");
+        writer.name("exec_op").value(operation);
+        writer.name("packets").beginArray();
+        for (byte[] frame : frames) {
+            // 跳过每帧的版本字节, 其余部分就是一个完整的值
+            buffer.write(frame, 1, frame.length - 1);
+        }
+        writer.endArray();
+        writer.endObject();
+        return buffer.toByteArray();
+    }
+
+    private BinaryJsonWriter newBinaryWriter(ByteFrameBuffer buffer) {
+        BinaryJsonWriter writer = new BinaryJsonWriter(buffer);
+        writer.setSerializeNulls(gson.serializeNulls());
+        return writer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeBinary(ByteFrameBuffer buffer, Object value) throws IOException {
+        TypeAdapter<Object> adapter = (TypeAdapter<Object>) gson.getAdapter(value.getClass());
+        adapter.write(newBinaryWriter(buffer), value);
+    }
+
+    /**
+     * 二进制版本的 {@link #appendFields}: 去掉对象的起止标记
+     */
+    private void appendBinaryFields(ByteFrameBuffer buffer, Object value) throws IOException {
+        int mark = buffer.length();
+        writeBinary(buffer, value);
+        int end = buffer.length();
+        if (end - mark < 2 || buffer.byteAt(mark) != BinaryTag.OBJECT || buffer.byteAt(end - 1) != BinaryTag.END) {
+            buffer.setLength(mark);
+            return;
+        }
+        buffer.setLength(end - 1);
+        buffer.remove(mark);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(FrameBuffer buffer, Object value) throws IOException {
+        TypeAdapter<Object> adapter = (TypeAdapter<Object>) gson.getAdapter(value.getClass());
+        adapter.write(gson.newJsonWriter(buffer), value);
+    }
+
+    /**
+     * 把对象的字段追加到缓冲区中尚未闭合的对象里
+     * <p>
+     * 对象先完整写出, 再把其首尾的花括号替换掉; 非对象值与 merge 一致被忽略
+     */
+    private void appendFields(FrameBuffer buffer, Object value) throws IOException {
+        int mark = buffer.length();
+        write(buffer, value);
+        int end = buffer.length();
+        if (end - mark <= 2 || buffer.charAt(mark) != '{' || buffer.charAt(end - 1) != '}') {
+            buffer.setLength(mark);
+            return;
+        }
+        buffer.setCharAt(mark, ',');
+        buffer.setLength(end - 1);
+    }
+
+    /**
+     * 已编码的出站帧数量
+     */
+    public static long getEncodedFrames() {
+        return encodedFrames.sum();
+    }
+
+    /**
+     * 回退到 JsonObject 合并方式编码的回调数量
+     */
+    public static long getTreeFallbacks() {
+        return treeFallbacks.sum();
+    }
+}
@@ -0,0 +1,55 @@
+package com.springwater.easybot.bridge.codec;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import com.springwater.easybot.bridge.utils.GsonUtils;
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * 已编码的 JSON 片段, 写出时原样拼接而不再经过序列化
+ * <p>
+ * 二进制编码或合并到树中时需要逐个写出, 解析结果在首次使用时缓存, 同一片段不会被反复解析
+ */
+public final class RawJson {
+    @Getter
+    private final String json;
+    private volatile JsonElement tree;
+
+    public RawJson(String json) {
+        this.json = json;
+    }
+
+    /**
+     * 写出片段. 文本写入器直接拼接, 其他写入器使用缓存的解析结果
+     */
+    public void writeTo(JsonWriter out) throws IOException {
+        if (out instanceof BinaryJsonWriter) {
+            GsonUtils.write(out, tree());
+            return;
+        }
+        try {
+            out.jsonValue(json);
+        } catch (UnsupportedOperationException e) {
+            // toJsonTree 使用的写入器不支持 jsonValue, 例如回调对象已被事件访问时的合并
+            GsonUtils.write(out, tree());
+        }
+    }
+
+    private JsonElement tree() {
+        JsonElement result = tree;
+        if (result == null) {
+            // 并发时可能解析多次, 结果相同
+            result = JsonParser.parseString(json);
+            tree = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return json;
+    }
+}
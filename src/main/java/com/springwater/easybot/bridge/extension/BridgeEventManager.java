@@ -16,6 +16,7 @@ import java.lang.reflect.Parameter;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -31,12 +32,17 @@ public class BridgeEventManager implements IBridgeExtensionApi {
         private final IBridgeListener listener;
         @Getter
         private final Method method;
+        /**
+         * 注册时生成的调用器, 代替每次分发时的 {@link Method#invoke}
+         */
+        private final EventInvoker invoker;
         private final BridgeHandlerPriority priority;
 
         public RegisteredHandler(IBridgeExtension extension, IBridgeListener listener, Method method, BridgeHandlerPriority priority) {
             this.extension = extension;
             this.listener = listener;
             this.method = method;
+            this.invoker = HandlerInvokers.forEvent(method);
             this.priority = priority;
         }
 
@@ -47,6 +53,17 @@ public class BridgeEventManager implements IBridgeExtensionApi {
     }
 
     private final Map<Class<? extends BridgeEvent>, List<RegisteredHandler>> handlersMap = new ConcurrentHashMap<>();
+    private static final RegisteredHandler[] NO_HANDLERS = new RegisteredHandler[0];
+
+    /**
+     * 按具体事件类型解析好的处理器链, 已合并父类型的处理器并按优先级排序. 只读快照, 注册或注销时为已知的事件类型整体重建,
+     * 首次出现的事件类型以写时复制的方式加入
+     */
+    private volatile Map<Class<? extends BridgeEvent>, RegisteredHandler[]> dispatchPlans = Collections.emptyMap();
+    /**
+     * 注册或注销时加一, 供 {@link ExtensionCatalog} 判断是否需要重建
+     */
+    private final AtomicLong version = new AtomicLong();
 
     public BridgeEventManager() {
         this.asyncExecutor = new ThreadPoolExecutor(
@@ -114,6 +131,7 @@ public class BridgeEventManager implements IBridgeExtensionApi {
                 BridgeClient.getLogger().warn("事件处理器 " + id + " 的处理函数 " + method.getName() + " 监听了一个非 BridgeEvent 类型: " + paramType.getName());
             }
         }
+        invalidateDispatchPlans();
     }
 
     @Override
@@ -122,6 +140,7 @@ public class BridgeEventManager implements IBridgeExtensionApi {
         handlersMap.values().forEach(list -> {
             list.removeIf(handler -> handler.getListener().equals(listener));
         });
+        invalidateDispatchPlans();
         BridgeClient.getLogger().info("已注销事件处理器: " + listener.getClass().getName());
     }
 
@@ -133,28 +152,67 @@ public class BridgeEventManager implements IBridgeExtensionApi {
                 .distinct();
     }
 
-    public void push(BridgeEvent event) {
-        if (event == null) return;
-        List<RegisteredHandler> handlersToExecute = new ArrayList<>();
+    /**
+     * 判断是否有处理器会收到该类型的事件, 没有订阅者时调用方可以跳过事件的构建
+     */
+    public boolean hasSubscribers(Class<? extends BridgeEvent> eventClass) {
+        return dispatchPlan(eventClass).length > 0;
+    }
+
+    private RegisteredHandler[] dispatchPlan(Class<? extends BridgeEvent> eventClass) {
+        RegisteredHandler[] plan = dispatchPlans.get(eventClass);
+        return plan != null ? plan : addDispatchPlan(eventClass);
+    }
+
+    private synchronized RegisteredHandler[] addDispatchPlan(Class<? extends BridgeEvent> eventClass) {
+        Map<Class<? extends BridgeEvent>, RegisteredHandler[]> plans = dispatchPlans;
+        RegisteredHandler[] plan = plans.get(eventClass);
+        if (plan != null) {
+            return plan;
+        }
+        plan = buildDispatchPlan(eventClass);
+        Map<Class<? extends BridgeEvent>, RegisteredHandler[]> next = new HashMap<>(plans);
+        next.put(eventClass, plan);
+        dispatchPlans = Collections.unmodifiableMap(next);
+        return plan;
+    }
+
+    private RegisteredHandler[] buildDispatchPlan(Class<? extends BridgeEvent> eventClass) {
+        List<RegisteredHandler> handlers = new ArrayList<>();
         for (Map.Entry<Class<? extends BridgeEvent>, List<RegisteredHandler>> entry : handlersMap.entrySet()) {
-            if (entry.getKey().isAssignableFrom(event.getClass())) {
-                handlersToExecute.addAll(entry.getValue());
+            if (entry.getKey().isAssignableFrom(eventClass)) {
+                handlers.addAll(entry.getValue());
             }
         }
+        handlers.sort(Comparator.naturalOrder());
+        return handlers.isEmpty() ? NO_HANDLERS : handlers.toArray(NO_HANDLERS);
+    }
 
-        if (handlersToExecute.isEmpty()) {
-            return;
+    private synchronized void invalidateDispatchPlans() {
+        // 先更新处理器再重建, 已分发过的事件类型和被监听的事件类型都提前解析好, 分发时不再写入
+        Set<Class<? extends BridgeEvent>> known = new HashSet<>(dispatchPlans.keySet());
+        known.addAll(handlersMap.keySet());
+        Map<Class<? extends BridgeEvent>, RegisteredHandler[]> next = new HashMap<>();
+        for (Class<? extends BridgeEvent> eventClass : known) {
+            next.put(eventClass, buildDispatchPlan(eventClass));
         }
+        dispatchPlans = Collections.unmodifiableMap(next);
+        version.incrementAndGet();
+    }
 
-        handlersToExecute.sort(Comparator.naturalOrder());
+    public long getVersion() {
+        return version.get();
+    }
 
-        for (RegisteredHandler handler : handlersToExecute) {
+    public void push(BridgeEvent event) {
+        if (event == null) return;
+        for (RegisteredHandler handler : dispatchPlan(event.getClass())) {
             try {
                 if (event.isCancelled() && !event.isContinuePropagation()) {
                     break;
                 }
 
-                handler.getMethod().invoke(handler.getListener(), event);
+                handler.invoker.invoke(handler.getListener(), event);
 
             } catch (Throwable e) {
                 BridgeClient.getLogger().error("处理事件 " + event.getClass().getSimpleName() + " 时发生异常: " +
@@ -185,6 +243,7 @@ public class BridgeEventManager implements IBridgeExtensionApi {
     public void shutdown() {
         BridgeClient.getLogger().info("正在关闭事件管理器...");
         handlersMap.clear();
+        invalidateDispatchPlans();
         try {
             asyncExecutor.shutdown();
             if (!asyncExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -0,0 +1,84 @@
+package com.springwater.easybot.bridge.extension;
+
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.api.exec.ExecPolicy;
+import com.springwater.easybot.bridge.api.exec.IBridgeExecRegistry;
+import com.springwater.easybot.bridge.api.exec.IExecHandler;
+import com.springwater.easybot.bridge.packet.PacketWithCallBackId;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class BridgeExecRegistry implements IBridgeExecRegistry {
+    @SuppressWarnings("ClassCanBeRecord") // 需要兼容 Java 8
+    public static final class ExecRegistration<T extends PacketWithCallBackId> {
+        @Getter
+        private final String operation;
+        @Getter
+        private final Class<T> packetType;
+        @Getter
+        private final ExecPolicy policy;
+        @Getter
+        private final IExecHandler<T> handler;
+
+        private ExecRegistration(String operation, Class<T> packetType, ExecPolicy policy, IExecHandler<T> handler) {
+            this.operation = operation;
+            this.packetType = packetType;
+            this.policy = policy;
+            this.handler = handler;
+        }
+
+        /**
+         * 该操作是否需要解析消息体
+         */
+        public boolean needsBody() {
+            return packetType != PacketWithCallBackId.class;
+        }
+    }
+
+    private final Object writeLock = new Object();
+    /**
+     * 注册表快照, 写入时整体替换, 分发时无锁读取
+     */
+    private volatile Map<String, ExecRegistration<?>> table = Collections.emptyMap();
+
+    @Override
+    public <T extends PacketWithCallBackId> void register(String operation, Class<T> packetType, ExecPolicy policy, IExecHandler<T> handler) {
+        if (operation == null || operation.isEmpty() || packetType == null || policy == null || handler == null) {
+            BridgeClient.getLogger().warn("注册操作处理器失败: 参数不完整");
+            return;
+        }
+
+        synchronized (writeLock) {
+            Map<String, ExecRegistration<?>> next = new HashMap<>(table);
+            if (next.put(operation, new ExecRegistration<>(operation, packetType, policy, handler)) != null) {
+                BridgeClient.getLogger().info("操作处理器 " + operation + " 已被覆盖");
+            }
+            table = Collections.unmodifiableMap(next);
+        }
+    }
+
+    @Override
+    public void unregister(String operation) {
+        if (operation == null) return;
+        synchronized (writeLock) {
+            if (!table.containsKey(operation)) return;
+            Map<String, ExecRegistration<?>> next = new HashMap<>(table);
+            next.remove(operation);
+            table = Collections.unmodifiableMap(next);
+        }
+        BridgeClient.getLogger().info("已注销操作处理器: " + operation);
+    }
+
+    /**
+     * 查找操作对应的处理器
+     *
+     * @return 未注册时返回 null
+     */
+    public ExecRegistration<?> lookup(String operation) {
+        if (operation == null) return null;
+        return table.get(operation);
+    }
+}
@@ -9,35 +9,57 @@ import com.springwater.easybot.bridge.api.rpc.IRpcListener;
 import com.springwater.easybot.bridge.api.rpc.RpcContext;
 import lombok.Getter;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class BridgeRpcManager implements IBridgeRpcManager {
     @SuppressWarnings("ClassCanBeRecord") // 需要兼容 Java 8
-    private static class RpcMethodHandler {
+    static class RpcMethodHandler {
+        @Getter
+        private final String extensionId;
+        @Getter
+        private final String methodName;
         @Getter
         private final IRpcListener listenerInstance;
         @Getter
         private final Method method;
         @Getter
         private final BridgeRpc annotation;
+        /**
+         * 注册时生成的调用器, 代替每次调用时的 {@link Method#invoke}
+         */
+        @Getter
+        private final RpcInvoker invoker;
 
-        public RpcMethodHandler(IRpcListener listenerInstance, Method method, BridgeRpc annotation) {
+        public RpcMethodHandler(String extensionId, IRpcListener listenerInstance, Method method, BridgeRpc annotation) {
+            this.extensionId = extensionId;
+            this.methodName = annotation.method();
             this.listenerInstance = listenerInstance;
             this.method = method;
             this.annotation = annotation;
+            this.invoker = HandlerInvokers.forRpc(method);
         }
     }
 
     private final Map<String, Map<String, RpcMethodHandler>> rpcRegistry = new ConcurrentHashMap<>();
 
     private final Map<IBridgeExtension, List<IRpcListener>> extensionListenersMap = new ConcurrentHashMap<>();
+    /**
+     * 由 rpcRegistry 生成的扁平路由表, 注册或注销后整体替换, 调用时只读取此表
+     */
+    private volatile RpcRoutingTable routes = RpcRoutingTable.EMPTY;
+    /**
+     * 注册或注销时加一, 供 {@link ExtensionCatalog} 判断是否需要重建
+     */
+    private final AtomicLong version = new AtomicLong();
 
     @Override
-    public void registerRpc(IBridgeExtension instance, IRpcListener listener) {
+    public synchronized void registerRpc(IBridgeExtension instance, IRpcListener listener) {
         if (instance == null) return;
 
         try {
@@ -53,6 +75,7 @@ public class BridgeRpcManager implements IBridgeRpcManager {
 
             if (registeredCount > 0) {
                 extensionListenersMap.computeIfAbsent(instance, k -> new CopyOnWriteArrayList<>()).add(listener);
+                rebuildRoutes();
                 BridgeClient.getLogger().info("扩展 [" + extensionId + "] 注册了 " + registeredCount + " 个 RPC 接口");
             }
 
@@ -78,19 +101,58 @@ public class BridgeRpcManager implements IBridgeRpcManager {
         }
 
         rpcRegistry.computeIfAbsent(extensionId, k -> new ConcurrentHashMap<>())
-                .put(rpcMethodName, new RpcMethodHandler(listener, method, annotation));
+                .put(rpcMethodName, new RpcMethodHandler(extensionId, listener, method, annotation));
 
         return true;
     }
 
     @Override
-    public void unregisterRpc(IBridgeExtension instance) {
+    public synchronized void unregisterRpc(IBridgeExtension instance) {
         if (instance == null) return;
         String extensionId = instance.getIdentifier();
         if (rpcRegistry.remove(extensionId) != null) {
             BridgeClient.getLogger().info("已注销扩展 [" + extensionId + "] 的所有 RPC 接口");
         }
         extensionListenersMap.remove(instance);
+        rebuildRoutes();
+    }
+
+    private void rebuildRoutes() {
+        List<RpcMethodHandler> handlers = new ArrayList<>();
+        for (Map<String, RpcMethodHandler> methods : rpcRegistry.values()) {
+            handlers.addAll(methods.values());
+        }
+        routes = new RpcRoutingTable(handlers);
+        version.incrementAndGet();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * 描述扩展已注册的 RPC 接口, 使用注册时保存的方法与注解
+     *
+     * @return 扩展没有注册 RPC 接口时返回 null
+     */
+    JsonObject describeRpc(IBridgeExtension extension) {
+        Map<String, RpcMethodHandler> handlers = rpcRegistry.get(extension.getIdentifier());
+        if (handlers == null || !extensionListenersMap.containsKey(extension)) {
+            return null;
+        }
+        JsonObject rpc = new JsonObject();
+        for (Map.Entry<String, RpcMethodHandler> entry : handlers.entrySet()) {
+            BridgeRpc annotation = entry.getValue().getAnnotation();
+            Method method = entry.getValue().getMethod();
+            JsonObject rpcMethod = new JsonObject();
+            rpcMethod.addProperty("identifier", extension.getIdentifier());
+            rpcMethod.addProperty("method", annotation.method());
+            rpcMethod.addProperty("description", annotation.description());
+            rpcMethod.addProperty("displayName", annotation.displayName());
+            rpcMethod.addProperty("fullMethodClassName", method.getDeclaringClass().getName() + "." + method.getName());
+            rpc.add(entry.getKey(), rpcMethod);
+        }
+        return rpc;
     }
 
     @Override
@@ -103,23 +165,24 @@ public class BridgeRpcManager implements IBridgeRpcManager {
             return setContextError(context, "参数错误: identifier或method是null");
         }
 
-        Map<String, RpcMethodHandler> extensionMethods = rpcRegistry.get(identifier);
-        if (extensionMethods == null) {
-            return setContextError(context, "扩展不存在: " + identifier);
-        }
-
-        RpcMethodHandler handler = extensionMethods.get(method);
+        RpcMethodHandler handler = routes.find(identifier, method);
         if (handler == null) {
+            if (!rpcRegistry.containsKey(identifier)) {
+                return setContextError(context, "扩展不存在: " + identifier);
+            }
             return setContextError(context, "扩展" + identifier + "中不存在方法: " + method);
         }
 
         try {
-            handler.getMethod().invoke(handler.getListenerInstance(), context);
+            handler.getInvoker().invoke(handler.getListenerInstance(), context);
             return context;
         } catch (Throwable e) {
+            // 反射调用的回退路径会包装异常, 错误回调中给出 RPC 方法实际抛出的异常
+            Throwable cause = e instanceof InvocationTargetException && e.getCause() != null ? e.getCause() : e;
             BridgeClient.getLogger().error("执行 RPC [" + identifier + ":" + method + "] 时发生异常");
-            BridgeClient.getLogger().error(e.toString());
-            return setContextError(context, "内部错误: " + e.getLocalizedMessage());
+            BridgeClient.getLogger().error(cause.toString());
+            String message = cause.getLocalizedMessage();
+            return setContextError(context, "内部错误: " + (message != null ? message : cause.getClass().getName()));
         }
     }
 
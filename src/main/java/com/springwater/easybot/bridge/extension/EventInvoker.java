@@ -0,0 +1,14 @@
+package com.springwater.easybot.bridge.extension;
+
+import com.springwater.easybot.bridge.api.events.BridgeEvent;
+
+/**
+ * 调用一个事件处理函数, 由 {@link HandlerInvokers} 在注册时生成
+ */
+@FunctionalInterface
+public interface EventInvoker {
+    /**
+     * @throws Throwable 处理函数抛出的异常, 直接调用时不会被包装; 反射调用时为 {@link java.lang.reflect.InvocationTargetException}
+     */
+    void invoke(Object listener, BridgeEvent event) throws Throwable;
+}
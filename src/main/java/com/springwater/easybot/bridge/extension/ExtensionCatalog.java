@@ -0,0 +1,130 @@
+package com.springwater.easybot.bridge.extension;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.springwater.easybot.bridge.api.IBridgeExtension;
+import com.springwater.easybot.bridge.codec.RawJson;
+import com.springwater.easybot.bridge.packet.GetExtensionsResultPacket;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * GET_EXTENSIONS 返回的扩展目录
+ * <p>
+ * 事件或 RPC 的注册发生变化后, 下一次查询时重建并编码一次, 之后直接返回已编码的目录.
+ * 目录内容变化时版本号加一, 主程序带上已持有的版本时只确认没有变化
+ */
+public final class ExtensionCatalog {
+    @SuppressWarnings("ClassCanBeRecord") // 需要兼容 Java 8
+    private static final class Snapshot {
+        private final long eventVersion;
+        private final long rpcVersion;
+        private final long version;
+        private final RawJson extensions;
+
+        private Snapshot(long eventVersion, long rpcVersion, long version, RawJson extensions) {
+            this.eventVersion = eventVersion;
+            this.rpcVersion = rpcVersion;
+            this.version = version;
+            this.extensions = extensions;
+        }
+    }
+
+    private final Gson gson;
+    private final BridgeEventManager eventManager;
+    private final BridgeRpcManager rpcManager;
+    private final LongAdder rebuilds = new LongAdder();
+    private volatile Snapshot current;
+
+    public ExtensionCatalog(Gson gson, BridgeEventManager eventManager, BridgeRpcManager rpcManager) {
+        this.gson = gson;
+        this.eventManager = eventManager;
+        this.rpcManager = rpcManager;
+    }
+
+    /**
+     * @param sinceVersion 主程序已持有的版本, 为 null 时总是返回完整目录
+     */
+    public GetExtensionsResultPacket get(Long sinceVersion) {
+        Snapshot snapshot = snapshot();
+        GetExtensionsResultPacket packet = new GetExtensionsResultPacket();
+        packet.setVersion(snapshot.version);
+        if (sinceVersion != null && sinceVersion == snapshot.version) {
+            packet.setUnchanged(true);
+        } else {
+            packet.setExtensions(snapshot.extensions);
+        }
+        return packet;
+    }
+
+    /**
+     * 当前目录的版本
+     */
+    public long getVersion() {
+        return snapshot().version;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = current;
+        if (snapshot != null && snapshot.eventVersion == eventManager.getVersion() && snapshot.rpcVersion == rpcManager.getVersion()) {
+            return snapshot;
+        }
+        return rebuild();
+    }
+
+    private synchronized Snapshot rebuild() {
+        // 先读版本再读注册表, 重建期间发生的变化会让下一次查询再次重建
+        long eventVersion = eventManager.getVersion();
+        long rpcVersion = rpcManager.getVersion();
+        Snapshot previous = current;
+        if (previous != null && previous.eventVersion == eventVersion && previous.rpcVersion == rpcVersion) {
+            return previous;
+        }
+        String json = gson.toJson(build());
+        long version;
+        if (previous == null) {
+            // 以启动时间为初值, 重启后的版本号不会与主程序持有的旧版本重合
+            version = System.currentTimeMillis();
+        } else if (previous.extensions.getJson().equals(json)) {
+            version = previous.version;
+        } else {
+            version = previous.version + 1;
+        }
+        rebuilds.increment();
+        Snapshot snapshot = new Snapshot(eventVersion, rpcVersion, version, new RawJson(json));
+        current = snapshot;
+        return snapshot;
+    }
+
+    private JsonObject build() {
+        Set<IBridgeExtension> instances = new LinkedHashSet<>(eventManager.getExtensions().collect(Collectors.toList()));
+        instances.addAll(rpcManager.getRpcListeners().keySet());
+
+        JsonObject extensions = new JsonObject();
+        for (IBridgeExtension instance : instances) {
+            JsonObject extension = new JsonObject();
+            extension.addProperty("name", instance.getName());
+            extension.addProperty("description", instance.getDescription());
+            extension.addProperty("author", instance.getAuthor());
+            extension.addProperty("version", instance.getVersion());
+            extension.add("required_plugins", gson.toJsonTree(instance.requiredPlugins()));
+            extension.addProperty("identifier", instance.getIdentifier());
+            JsonObject rpc = rpcManager.describeRpc(instance);
+            if (rpc != null) {
+                extension.add("rpc", rpc);
+            }
+            extensions.add(instance.getIdentifier(), extension);
+        }
+        return extensions;
+    }
+
+    /**
+     * 重建目录的次数
+     */
+    public long getRebuilds() {
+        return rebuilds.sum();
+    }
+}
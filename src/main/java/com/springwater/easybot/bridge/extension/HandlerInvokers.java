@@ -0,0 +1,103 @@
+package com.springwater.easybot.bridge.extension;
+
+import com.springwater.easybot.bridge.api.events.BridgeEvent;
+import com.springwater.easybot.bridge.api.rpc.RpcContext;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+
+/**
+ * 为事件处理函数与 RPC 方法生成调用器
+ * <p>
+ * 依次尝试: 通过 LambdaMetafactory 生成直接调用的实现; 通过 MethodHandle 调用; 最后退回 {@link Method#invoke}.
+ * 生成的类由桥接的类加载器加载, 处理函数所在的类或参数类型对其不可见时 (例如来自其他插件的类加载器) 不使用 LambdaMetafactory
+ */
+public final class HandlerInvokers {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private HandlerInvokers() {
+    }
+
+    public static EventInvoker forEvent(Method method) {
+        return create(method, EventInvoker.class, BridgeEvent.class,
+                handle -> (listener, event) -> {
+                    // 必须写成语句, 表达式形式的 lambda 会让 invokeExact 的签名推断为返回 Object
+                    handle.invokeExact(listener, event);
+                },
+                method::invoke);
+    }
+
+    public static RpcInvoker forRpc(Method method) {
+        return create(method, RpcInvoker.class, RpcContext.class,
+                handle -> (listener, context) -> {
+                    handle.invokeExact(listener, context);
+                },
+                method::invoke);
+    }
+
+    /**
+     * @param type       调用器接口, 唯一的抽象方法签名为 (Object, argType)void
+     * @param fromHandle 以签名为 (Object, argType)void 的 MethodHandle 构建调用器
+     * @param reflective 反射调用的实现
+     */
+    private static <T> T create(Method method, Class<T> type, Class<?> argType, Function<MethodHandle, T> fromHandle, T reflective) {
+        MethodType samType = MethodType.methodType(void.class, Object.class, argType);
+        if (isPublic(method) && isVisible(method.getDeclaringClass()) && isVisible(method.getParameterTypes()[0])) {
+            try {
+                return lambda(method, type, samType);
+            } catch (Throwable ignored) {
+                // 退回 MethodHandle
+            }
+        }
+        try {
+            return fromHandle.apply(methodHandle(method).asType(samType));
+        } catch (Throwable ignored) {
+            // 退回反射
+        }
+        return reflective;
+    }
+
+    private static <T> T lambda(Method method, Class<T> type, MethodType samType) throws Throwable {
+        MethodHandle target = LOOKUP.unreflect(method);
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, samMethodName(type), MethodType.methodType(type),
+                samType, target, MethodType.methodType(void.class, method.getDeclaringClass(), method.getParameterTypes()[0]));
+        return type.cast(site.getTarget().invoke());
+    }
+
+    private static String samMethodName(Class<?> type) {
+        for (Method method : type.getMethods()) {
+            if (Modifier.isAbstract(method.getModifiers())) {
+                return method.getName();
+            }
+        }
+        throw new IllegalArgumentException(type.getName() + " 不是函数式接口");
+    }
+
+    private static MethodHandle methodHandle(Method method) throws IllegalAccessException {
+        try {
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            // 非公开类中的公开方法
+            method.setAccessible(true);
+            return LOOKUP.unreflect(method);
+        }
+    }
+
+    private static boolean isPublic(Method method) {
+        return Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(method.getDeclaringClass().getModifiers());
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, HandlerInvokers.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.springwater.easybot.bridge.extension;
+
+import com.springwater.easybot.bridge.api.rpc.RpcContext;
+
+/**
+ * 调用一个 RPC 方法, 由 {@link HandlerInvokers} 在注册时生成
+ */
+@FunctionalInterface
+public interface RpcInvoker {
+    /**
+     * @throws Throwable RPC 方法抛出的异常, 直接调用时不会被包装; 反射调用时为 {@link java.lang.reflect.InvocationTargetException}
+     */
+    void invoke(Object listener, RpcContext context) throws Throwable;
+}
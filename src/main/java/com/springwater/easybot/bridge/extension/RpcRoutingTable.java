@@ -0,0 +1,50 @@
+package com.springwater.easybot.bridge.extension;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * 以 (扩展标识, 方法名) 为键的 RPC 路由表
+ * <p>
+ * 构建后不再修改, 注册变化时整体替换. 使用开放寻址, 查找时直接组合两个字符串的哈希, 不需要拼接键
+ */
+final class RpcRoutingTable {
+    static final RpcRoutingTable EMPTY = new RpcRoutingTable(Collections.emptyList());
+
+    private final BridgeRpcManager.RpcMethodHandler[] slots;
+    private final int mask;
+
+    RpcRoutingTable(Collection<BridgeRpcManager.RpcMethodHandler> handlers) {
+        // 负载不超过一半, 探测序列保持很短
+        int capacity = Integer.highestOneBit(Math.max(2, handlers.size() * 2) - 1) << 1;
+        slots = new BridgeRpcManager.RpcMethodHandler[capacity];
+        mask = capacity - 1;
+        for (BridgeRpcManager.RpcMethodHandler handler : handlers) {
+            int i = hash(handler.getExtensionId(), handler.getMethodName()) & mask;
+            while (slots[i] != null) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = handler;
+        }
+    }
+
+    /**
+     * @return 没有对应的路由时返回 null
+     */
+    BridgeRpcManager.RpcMethodHandler find(String extensionId, String methodName) {
+        int i = hash(extensionId, methodName) & mask;
+        BridgeRpcManager.RpcMethodHandler handler;
+        while ((handler = slots[i]) != null) {
+            if (handler.getMethodName().equals(methodName) && handler.getExtensionId().equals(extensionId)) {
+                return handler;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    private static int hash(String extensionId, String methodName) {
+        int h = extensionId.hashCode() * 31 + methodName.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,222 @@
+package com.springwater.easybot.bridge.handler;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.springwater.easybot.bridge.BridgeBehavior;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.api.exec.ExecContext;
+import com.springwater.easybot.bridge.api.exec.ExecPolicy;
+import com.springwater.easybot.bridge.api.exec.IBridgeExecRegistry;
+import com.springwater.easybot.bridge.api.rpc.RpcContext;
+import com.springwater.easybot.bridge.cache.PlaceholderCache;
+import com.springwater.easybot.bridge.message.Segment;
+import com.springwater.easybot.bridge.message.SegmentType;
+import com.springwater.easybot.bridge.model.PlaceholderQuery;
+import com.springwater.easybot.bridge.packet.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static com.springwater.easybot.bridge.message.Segment.getSegmentClass;
+
+/**
+ * 桥接内置的操作处理器
+ */
+public final class BuiltinExecHandlers {
+    private BuiltinExecHandlers() {
+    }
+
+    public static void registerAll(IBridgeExecRegistry registry) {
+        registry.register("GET_SERVER_INFO", PacketWithCallBackId.class, ExecPolicy.INLINE, BuiltinExecHandlers::getServerInfo);
+        registry.register("UN_BIND_NOTIFY", PlayerUnBindNotifyPacket.class, ExecPolicy.INLINE, BuiltinExecHandlers::unBindNotify);
+        registry.register("BIND_SUCCESS_NOTIFY", BindSuccessNotifyPacket.class, ExecPolicy.INLINE, BuiltinExecHandlers::bindSuccessNotify);
+        registry.register("PLACEHOLDER_API_QUERY", PlaceholderApiQueryPacket.class, ExecPolicy.WORKER, BuiltinExecHandlers::placeholderApiQuery);
+        registry.register("PLACEHOLDER_API_BATCH_QUERY", PlaceholderApiBatchQueryPacket.class, ExecPolicy.WORKER, BuiltinExecHandlers::placeholderApiBatchQuery);
+        registry.register("RUN_COMMAND", RunCommandPacket.class, ExecPolicy.INLINE, BuiltinExecHandlers::runCommand);
+        registry.register("SEND_TO_CHAT", PacketWithCallBackId.class, ExecPolicy.INLINE, BuiltinExecHandlers::sendToChat);
+        registry.register("SYNC_SETTINGS_UPDATED", UpdateSyncSettingsPacket.class, ExecPolicy.INLINE, BuiltinExecHandlers::syncSettingsUpdated);
+        registry.register("PLAYER_LIST", PlayerListRequestPacket.class, ExecPolicy.INLINE, BuiltinExecHandlers::playerList);
+        registry.register("RPC_CALL", RpcCallPacket.class, ExecPolicy.WORKER, BuiltinExecHandlers::rpcCall);
+        registry.register("GET_EXTENSIONS", GetExtensionsPacket.class, ExecPolicy.INLINE, BuiltinExecHandlers::getExtensions);
+        registry.register("MODULE_INSTALLED", ModuleInstalledPacked.class, ExecPolicy.INLINE, BuiltinExecHandlers::moduleInstalled);
+        registry.register("MODULE_ENABLED", ModuleEnabledPacked.class, ExecPolicy.INLINE, BuiltinExecHandlers::moduleEnabled);
+        registry.register("IS_AUTHENTICATED", IsAuthenticatedPacket.class, ExecPolicy.INLINE, BuiltinExecHandlers::isAuthenticated);
+    }
+
+    private static BridgeBehavior behavior(ExecContext<?> context) {
+        return context.getClient().getBehavior();
+    }
+
+    private static void getServerInfo(ExecContext<PacketWithCallBackId> context) {
+        if (ClientProfile.isServerInfoCacheEnabled()) {
+            context.setResult(context.getClient().getServerInfoSnapshot().get());
+            return;
+        }
+        context.setResult(behavior(context).getInfo());
+    }
+
+    private static void unBindNotify(ExecContext<PlayerUnBindNotifyPacket> context) {
+        PlayerUnBindNotifyPacket packet = context.getPacket();
+        behavior(context).KickPlayer(packet.getPlayerName(), packet.getKickMessage());
+    }
+
+    private static void bindSuccessNotify(ExecContext<BindSuccessNotifyPacket> context) {
+        BindSuccessNotifyPacket packet = context.getPacket();
+        behavior(context).BindSuccessBroadcast(packet.getPlayerName(), packet.getAccountId(), packet.getAccountName());
+    }
+
+    private static void placeholderApiQuery(ExecContext<PlaceholderApiQueryPacket> context) {
+        PlaceholderApiQueryPacket packet = context.getPacket();
+        PlaceholderApiQueryResultPacket result = new PlaceholderApiQueryResultPacket();
+        try {
+            String papiQueryResult = context.getClient().getPlaceholderCache().query(packet.getPlayerName(), packet.getText(),
+                    () -> behavior(context).papiQuery(packet.getPlayerName(), packet.getText()));
+            result.setSuccess(true);
+            result.setText(papiQueryResult);
+        } catch (Exception ex) {
+            result.setSuccess(false);
+            result.setText(ex.getLocalizedMessage());
+            BridgeClient.getLogger().error("执行Papi查询命令失败: " + ex);
+        }
+        context.setResult(result);
+    }
+
+    private static void placeholderApiBatchQuery(ExecContext<PlaceholderApiBatchQueryPacket> context) {
+        List<PlaceholderQuery> queries = context.getPacket().getQueries();
+        if (queries == null) {
+            queries = Collections.emptyList();
+        }
+        // 只把未命中缓存且没有在展开中的项交给平台展开
+        List<CompletableFuture<String>> futures = context.getClient().getPlaceholderCache().queryBatch(queries, behavior(context)::papiQueryBatch);
+        List<PlaceholderApiQueryResultPacket> results = new ArrayList<>(futures.size());
+        // 等待其他线程展开的项与单条查询一样最多等待一个回调超时
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ClientProfile.getCallbackTimeoutMillis());
+        boolean logged = false;
+        for (CompletableFuture<String> future : futures) {
+            try {
+                results.add(papiResult(true, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)));
+            } catch (Exception ex) {
+                if (ex instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                Throwable cause = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+                String message = cause instanceof TimeoutException ? "等待变量展开超时" : cause.getLocalizedMessage();
+                // 单项展开失败已由平台的批量实现记录, 这里只记录整批失败或超时
+                if (!logged && !(cause instanceof PlaceholderCache.ExpansionFailedException)) {
+                    BridgeClient.getLogger().error("执行Papi批量查询命令失败: " + message);
+                    logged = true;
+                }
+                results.add(papiResult(false, message));
+            }
+        }
+
+        PlaceholderApiBatchQueryResultPacket result = new PlaceholderApiBatchQueryResultPacket();
+        result.setResults(results);
+        context.setResult(result);
+    }
+
+    private static PlaceholderApiQueryResultPacket papiResult(boolean success, String text) {
+        PlaceholderApiQueryResultPacket result = new PlaceholderApiQueryResultPacket();
+        result.setSuccess(success);
+        result.setText(text);
+        return result;
+    }
+
+    private static void runCommand(ExecContext<RunCommandPacket> context) {
+        RunCommandPacket packet = context.getPacket();
+        RunCommandResultPacket result = new RunCommandResultPacket();
+        try {
+            String runCommandResult = behavior(context).runCommand(packet.getPlayerName(), packet.getCommand(), packet.isEnablePapi());
+            result.setSuccess(true);
+            result.setText(runCommandResult);
+        } catch (Exception ex) {
+            result.setSuccess(false);
+            result.setText(ex.getLocalizedMessage());
+            BridgeClient.getLogger().error("执行命令失败: " + ex);
+        }
+        context.setResult(result);
+    }
+
+    private static void sendToChat(ExecContext<PacketWithCallBackId> context) {
+        Gson gson = BridgeClient.getGson();
+        // 需要同时读取 extra 和文本, 先构建消息体再基于同一棵树映射, 避免重复解析
+        JsonElement extra = context.getFrame().getBody().get("extra");
+        SendToChatOldPacket packet = context.getFrame().as(gson, SendToChatOldPacket.class);
+        if (extra == null || extra.isJsonNull()) {
+            behavior(context).SyncToChat(packet.getText());
+            return;
+        }
+        List<Segment> segments = StreamSupport.stream(extra.getAsJsonArray().spliterator(), false).map(JsonElement::getAsJsonObject).map(extraObject -> {
+            SegmentType extraType = SegmentType.getSegmentType(extraObject.get("type").getAsInt());
+            if (extraType == null) return null;
+            Class<? extends Segment> segmentClass = getSegmentClass(extraType);
+            return segmentClass != null ? gson.fromJson(extraObject, segmentClass) : null;
+        }).filter(Objects::nonNull).collect(Collectors.toList());
+        behavior(context).SyncToChatExtra(segments, packet.getText());
+    }
+
+    private static void syncSettingsUpdated(ExecContext<UpdateSyncSettingsPacket> context) {
+        UpdateSyncSettingsPacket packet = context.getPacket();
+        ClientProfile.setSyncMessageMoney(packet.getSyncMoney());
+        ClientProfile.setSyncMessageMode(packet.getSyncMode());
+    }
+
+    private static void playerList(ExecContext<PlayerListRequestPacket> context) {
+        if (ClientProfile.isPlayerRosterEnabled()) {
+            context.setResult(context.getClient().getPlayerRoster().snapshot(context.getPacket().getSinceVersion()));
+            return;
+        }
+        PlayerListPacket playerListPacket = new PlayerListPacket();
+        playerListPacket.setList(behavior(context).getPlayerList());
+        context.setResult(playerListPacket);
+    }
+
+    private static void rpcCall(ExecContext<RpcCallPacket> context) {
+        RpcCallPacket packet = context.getPacket();
+        JsonObject callBack = context.getCallBack();
+        RpcContext rpcContext = new RpcContext(context.getClient(), packet.getBody());
+        try {
+            rpcContext = BridgeClient.getRpcManager().call(packet.getIdentifier(), packet.getMethod(), rpcContext);
+            // 路由失败或处理器抛出异常时已经写入了错误
+            if (!rpcContext.getError().has("error")) {
+                rpcContext.getError().addProperty("error", false);
+            }
+        } catch (Exception ex) {
+            BridgeClient.getLogger().error("调用RPC方法失败: " + ex.getLocalizedMessage());
+            rpcContext.getError().addProperty("error", true);
+            rpcContext.getError().addProperty("error_message", ex.getLocalizedMessage());
+        }
+
+        if (rpcContext.getError().get("error").getAsBoolean()) {
+            callBack.addProperty("error", true);
+            callBack.addProperty("error_message", rpcContext.getError().get("error_message").getAsString());
+        } else {
+            callBack.addProperty("error", false);
+            callBack.addProperty("error_message", "");
+        }
+        callBack.add("result", rpcContext.getResult());
+    }
+
+    private static void getExtensions(ExecContext<GetExtensionsPacket> context) {
+        context.setResult(BridgeClient.getExtensionCatalog().get(context.getPacket().getSinceVersion()));
+    }
+
+    private static void moduleInstalled(ExecContext<ModuleInstalledPacked> context) {
+        context.getCallBack().addProperty("installed", behavior(context).moduleIsInstalled(context.getPacket().getModuleName()));
+    }
+
+    private static void moduleEnabled(ExecContext<ModuleEnabledPacked> context) {
+        context.getCallBack().addProperty("enabled", behavior(context).moduleIsEnabled(context.getPacket().getModuleName()));
+    }
+
+    private static void isAuthenticated(ExecContext<IsAuthenticatedPacket> context) {
+        context.getCallBack().addProperty("authenticated", behavior(context).isAuthenticated(context.getPacket().getPlayerName()));
+    }
+}
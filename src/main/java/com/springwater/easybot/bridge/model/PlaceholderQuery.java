@@ -0,0 +1,21 @@
+package com.springwater.easybot.bridge.model;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class PlaceholderQuery {
+    @SerializedName("player_name")
+    private String playerName;
+    @SerializedName("query_text")
+    private String text;
+
+    public PlaceholderQuery(String playerName, String text) {
+        this.playerName = playerName;
+        this.text = text;
+    }
+}
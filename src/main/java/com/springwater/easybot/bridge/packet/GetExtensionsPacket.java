@@ -0,0 +1,15 @@
+package com.springwater.easybot.bridge.packet;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class GetExtensionsPacket extends PacketWithCallBackId {
+    /**
+     * 主程序已持有的扩展目录版本, 与当前版本相同时不再返回目录
+     */
+    @SerializedName("since_version")
+    private Long sinceVersion;
+}
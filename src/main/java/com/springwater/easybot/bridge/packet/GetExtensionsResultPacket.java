@@ -0,0 +1,20 @@
+package com.springwater.easybot.bridge.packet;
+
+import com.google.gson.annotations.SerializedName;
+import com.springwater.easybot.bridge.codec.RawJson;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class GetExtensionsResultPacket {
+    @SerializedName("version")
+    private long version;
+    /**
+     * 目录与主程序持有的版本相同, 此时不包含 extensions
+     */
+    @SerializedName("unchanged")
+    private boolean unchanged;
+    @SerializedName("extensions")
+    private RawJson extensions;
+}
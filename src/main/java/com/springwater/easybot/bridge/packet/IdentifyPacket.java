@@ -16,6 +16,29 @@ public class IdentifyPacket {
     private String serverDescription;
     @SerializedName("token")
     private String token;
+    /**
+     * 客户端是否支持批量发送, 需主程序在 IdentifySuccess 中确认后才会启用
+     */
+    @SerializedName("support_batch")
+    private boolean supportBatch;
+    /**
+     * 客户端是否支持以增量形式发送服务器状态
+     */
+    @SerializedName("support_state_delta")
+    private boolean supportStateDelta;
+    /**
+     * 客户端是否支持二进制帧
+     */
+    @SerializedName("support_binary")
+    private boolean supportBinary;
+    /**
+     * 客户端是否支持 PLACEHOLDER_API_BATCH_QUERY
+     */
+    @SerializedName("support_papi_batch")
+    private boolean supportPapiBatch;
+
+    public IdentifyPacket() {
+    }
 
     public IdentifyPacket(String token) {
         this.token = token;
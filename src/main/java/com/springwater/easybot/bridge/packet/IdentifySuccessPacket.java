@@ -11,4 +11,10 @@ public class IdentifySuccessPacket extends Packet {
     private String serverName;
     @SerializedName("support_get_plugin_list")
     private boolean supportGetPluginList = false;
+    @SerializedName("support_batch")
+    private boolean supportBatch = false;
+    @SerializedName("support_state_delta")
+    private boolean supportStateDelta = false;
+    @SerializedName("support_binary")
+    private boolean supportBinary = false;
 }
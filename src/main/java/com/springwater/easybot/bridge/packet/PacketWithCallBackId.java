@@ -15,4 +15,10 @@ public class PacketWithCallBackId {
 
     @SerializedName("exec_op")
     private String Operation;
+
+    /**
+     * 请求发出时调用方剩余的等待时间 (毫秒), 主程序可据此放弃已无人等待的工作, 不是请求时为 null
+     */
+    @SerializedName("deadline_ms")
+    private Long deadlineMillis;
 }
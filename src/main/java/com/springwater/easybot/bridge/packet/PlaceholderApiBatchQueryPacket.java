@@ -0,0 +1,16 @@
+package com.springwater.easybot.bridge.packet;
+
+import com.google.gson.annotations.SerializedName;
+import com.springwater.easybot.bridge.model.PlaceholderQuery;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class PlaceholderApiBatchQueryPacket extends PacketWithCallBackId {
+    @SerializedName("queries")
+    private List<PlaceholderQuery> queries = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.springwater.easybot.bridge.packet;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class PlaceholderApiBatchQueryResultPacket {
+    /**
+     * 与请求中的 queries 一一对应
+     */
+    @SerializedName("results")
+    private List<PlaceholderApiQueryResultPacket> results = new ArrayList<>();
+}
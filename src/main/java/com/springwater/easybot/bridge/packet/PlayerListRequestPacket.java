@@ -0,0 +1,15 @@
+package com.springwater.easybot.bridge.packet;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class PlayerListRequestPacket extends PacketWithCallBackId {
+    /**
+     * 主程序已持有的名单版本, 为空时返回完整名单
+     */
+    @SerializedName("since_version")
+    private Long sinceVersion;
+}
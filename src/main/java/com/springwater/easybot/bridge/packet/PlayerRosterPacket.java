@@ -0,0 +1,28 @@
+package com.springwater.easybot.bridge.packet;
+
+import com.google.gson.annotations.SerializedName;
+import com.springwater.easybot.bridge.codec.RawJson;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * 由玩家名单生成的 PLAYER_LIST 结果
+ * <p>
+ * 完整名单时 list 与 {@link PlayerListPacket} 格式相同; 增量时只有 joined 与 left, 主程序按玩家名替换或移除
+ */
+@Getter
+@Setter
+public class PlayerRosterPacket {
+    @SerializedName("version")
+    private long version;
+    @SerializedName("delta")
+    private boolean delta;
+    @SerializedName("list")
+    private List<RawJson> list;
+    @SerializedName("joined")
+    private List<RawJson> joined;
+    @SerializedName("left")
+    private List<String> left;
+}
@@ -0,0 +1,22 @@
+package com.springwater.easybot.bridge.packet;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ServerStateDeltaPacket extends PacketWithCallBackId {
+    @SerializedName("token")
+    private String token;
+    @SerializedName("joined")
+    private List<String> joined;
+    @SerializedName("left")
+    private List<String> left;
+
+    public ServerStateDeltaPacket() {
+        setOperation("SERVER_STATE_DELTA");
+    }
+}
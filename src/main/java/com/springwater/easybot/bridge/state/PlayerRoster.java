@@ -0,0 +1,246 @@
+package com.springwater.easybot.bridge.state;
+
+import com.google.gson.Gson;
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.codec.RawJson;
+import com.springwater.easybot.bridge.model.PlayerInfo;
+import com.springwater.easybot.bridge.packet.PlayerRosterPacket;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 在线玩家名单
+ * <p>
+ * 由加入/离开的通知增量维护, 每个玩家在变化时编码一次, 回答 PLAYER_LIST 时直接拼接已编码的条目.
+ * 每次变化版本号加一并记录在有限长度的历史中, 主程序带上已持有的版本时只返回之后的变化.
+ * 首次查询时从 {@link com.springwater.easybot.bridge.BridgeBehavior#getPlayerList()} 载入一次完整名单
+ */
+public final class PlayerRoster {
+    @SuppressWarnings("ClassCanBeRecord") // 需要兼容 Java 8
+    private static final class Entry {
+        private final PlayerInfo info;
+        private final RawJson json;
+
+        private Entry(PlayerInfo info, RawJson json) {
+            this.info = info;
+            this.json = json;
+        }
+    }
+
+    @SuppressWarnings("ClassCanBeRecord") // 需要兼容 Java 8
+    private static final class Change {
+        private final long version;
+        private final String key;
+        private final String name;
+
+        private Change(long version, String key, String name) {
+            this.version = version;
+            this.key = key;
+            this.name = name;
+        }
+    }
+
+    private final Gson gson;
+    private final Supplier<List<PlayerInfo>> loader;
+    private final Consumer<Collection<String>> listener;
+    private final LinkedHashMap<String, Entry> players = new LinkedHashMap<>();
+    private final ArrayDeque<Change> history = new ArrayDeque<>();
+    private final LongAdder fullSnapshots = new LongAdder();
+    private final LongAdder deltas = new LongAdder();
+    /**
+     * 以启动时间为初值, 重启后的版本号不会与主程序持有的旧版本重合
+     */
+    private long version = System.currentTimeMillis();
+    private boolean loaded;
+
+    /**
+     * @param loader   首次查询时载入完整名单
+     * @param listener 名单变化后收到当前的玩家名, 在持有锁时调用, 不应阻塞. 完整名单载入之前名单并不完整, 不会通知
+     */
+    public PlayerRoster(Gson gson, Supplier<List<PlayerInfo>> loader, Consumer<Collection<String>> listener) {
+        this.gson = gson;
+        this.loader = loader;
+        this.listener = listener;
+    }
+
+    /**
+     * 玩家加入或信息变化. 未提供的字段沿用名单中已有的值
+     */
+    public synchronized void join(PlayerInfo player) {
+        if (player == null || player.getPlayerName() == null) {
+            return;
+        }
+        String key = key(player.getPlayerName());
+        Entry old = players.get(key);
+        PlayerInfo merged = new PlayerInfo();
+        merged.setPlayerName(player.getPlayerName());
+        merged.setPlayerUuid(player.getPlayerUuid() != null || old == null ? player.getPlayerUuid() : old.info.getPlayerUuid());
+        merged.setIp(player.getIp() != null || old == null ? player.getIp() : old.info.getIp());
+        merged.setSkinUrl(player.getSkinUrl() != null || old == null ? player.getSkinUrl() : old.info.getSkinUrl());
+        merged.setBedrock(player.isBedrock() || old != null && old.info.isBedrock());
+        RawJson json = new RawJson(gson.toJson(merged));
+        if (old != null && old.json.getJson().equals(json.getJson())) {
+            return;
+        }
+        players.put(key, new Entry(merged, json));
+        record(key, merged.getPlayerName());
+        changed();
+    }
+
+    public void join(String playerName, String playerUuid, String playerIp) {
+        PlayerInfo player = new PlayerInfo();
+        player.setPlayerName(playerName);
+        player.setPlayerUuid(playerUuid);
+        player.setIp(playerIp);
+        join(player);
+    }
+
+    public synchronized void leave(String playerName) {
+        if (playerName == null) {
+            return;
+        }
+        String key = key(playerName);
+        Entry removed = players.remove(key);
+        if (removed != null) {
+            record(key, removed.info.getPlayerName());
+            changed();
+        }
+    }
+
+    /**
+     * 以完整名单替换当前名单, 例如插件重载后由平台重新提交
+     */
+    public synchronized void replaceAll(Collection<PlayerInfo> list) {
+        loaded = true;
+        Set<String> keep = new HashSet<>();
+        if (list != null) {
+            for (PlayerInfo player : list) {
+                if (player != null && player.getPlayerName() != null) {
+                    keep.add(key(player.getPlayerName()));
+                }
+            }
+        }
+        Iterator<Map.Entry<String, Entry>> it = players.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> entry = it.next();
+            if (!keep.contains(entry.getKey())) {
+                it.remove();
+                record(entry.getKey(), entry.getValue().info.getPlayerName());
+            }
+        }
+        if (list != null) {
+            for (PlayerInfo player : list) {
+                // 逐个写入, 只在最后通知一次
+                joinQuietly(player);
+            }
+        }
+        changed();
+    }
+
+    private void joinQuietly(PlayerInfo player) {
+        if (player == null || player.getPlayerName() == null) {
+            return;
+        }
+        String key = key(player.getPlayerName());
+        RawJson json = new RawJson(gson.toJson(player));
+        Entry old = players.get(key);
+        if (old != null && old.json.getJson().equals(json.getJson())) {
+            return;
+        }
+        players.put(key, new Entry(player, json));
+        record(key, player.getPlayerName());
+    }
+
+    /**
+     * 生成 PLAYER_LIST 的结果
+     *
+     * @param sinceVersion 主程序已持有的版本, 为 null 或历史中已没有足够的记录时返回完整名单
+     */
+    public synchronized PlayerRosterPacket snapshot(Long sinceVersion) {
+        if (!loaded) {
+            replaceAll(loader.get());
+        }
+        PlayerRosterPacket packet = new PlayerRosterPacket();
+        packet.setVersion(version);
+        if (sinceVersion != null && sinceVersion <= version && version - sinceVersion <= history.size()) {
+            // 同一玩家在区间内多次变化时只按当前状态返回一次
+            Map<String, String> touched = new HashMap<>();
+            Iterator<Change> it = history.descendingIterator();
+            while (it.hasNext()) {
+                Change change = it.next();
+                if (change.version <= sinceVersion) {
+                    break;
+                }
+                touched.putIfAbsent(change.key, change.name);
+            }
+            List<RawJson> joined = new ArrayList<>();
+            List<String> left = new ArrayList<>();
+            for (Map.Entry<String, Entry> entry : players.entrySet()) {
+                if (touched.remove(entry.getKey()) != null) {
+                    joined.add(entry.getValue().json);
+                }
+            }
+            left.addAll(touched.values());
+            packet.setDelta(true);
+            packet.setJoined(joined);
+            packet.setLeft(left);
+            deltas.increment();
+            return packet;
+        }
+        List<RawJson> list = new ArrayList<>(players.size());
+        for (Entry entry : players.values()) {
+            list.add(entry.json);
+        }
+        packet.setList(list);
+        fullSnapshots.increment();
+        return packet;
+    }
+
+    private void record(String key, String name) {
+        history.addLast(new Change(++version, key, name));
+        int max = Math.max(0, ClientProfile.getPlayerRosterHistorySize());
+        while (history.size() > max) {
+            history.removeFirst();
+        }
+    }
+
+    private void changed() {
+        if (!loaded) {
+            return;
+        }
+        List<String> names = new ArrayList<>(players.size());
+        for (Entry entry : players.values()) {
+            names.add(entry.info.getPlayerName());
+        }
+        listener.accept(names);
+    }
+
+    private static String key(String playerName) {
+        return playerName.toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized int size() {
+        return players.size();
+    }
+
+    /**
+     * 返回完整名单的次数
+     */
+    public long getFullSnapshots() {
+        return fullSnapshots.sum();
+    }
+
+    /**
+     * 返回增量的次数
+     */
+    public long getDeltas() {
+        return deltas.sum();
+    }
+}
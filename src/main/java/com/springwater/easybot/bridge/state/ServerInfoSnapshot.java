@@ -0,0 +1,120 @@
+package com.springwater.easybot.bridge.state;
+
+import com.google.gson.Gson;
+import com.springwater.easybot.bridge.codec.RawJson;
+import com.springwater.easybot.bridge.model.ServerInfo;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 服务器信息快照
+ * <p>
+ * 首次查询时调用 {@link com.springwater.easybot.bridge.BridgeBehavior#getInfo()} 并编码一次, 之后的 GET_SERVER_INFO 直接使用已编码的结果.
+ * 插件加载或配置重载后由平台调用 {@link #invalidate()} 或 {@link #update(ServerInfo)}; 加载期间发生过失效时不保存加载结果
+ */
+public final class ServerInfoSnapshot {
+    @SuppressWarnings("ClassCanBeRecord") // 需要兼容 Java 8
+    private static final class Snapshot {
+        private final long version;
+        private final ServerInfo info;
+        private final RawJson json;
+
+        private Snapshot(long version, ServerInfo info, RawJson json) {
+            this.version = version;
+            this.info = info;
+            this.json = json;
+        }
+    }
+
+    private final Gson gson;
+    private final Supplier<ServerInfo> loader;
+    /**
+     * 失效一次加一, 快照记录生成时的版本
+     */
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot current;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    public ServerInfoSnapshot(Gson gson, Supplier<ServerInfo> loader) {
+        this.gson = gson;
+        this.loader = loader;
+    }
+
+    /**
+     * @return 已编码的服务器信息, 平台返回 null 时为 null
+     */
+    public RawJson get() {
+        Snapshot snapshot = current;
+        if (snapshot != null) {
+            hits.increment();
+            return snapshot.json;
+        }
+        long version = this.version.get();
+        ServerInfo info = loader.get();
+        loads.increment();
+        if (info == null) {
+            return null;
+        }
+        return store(version, info).json;
+    }
+
+    /**
+     * 直接提交新的服务器信息
+     */
+    public void update(ServerInfo info) {
+        if (info == null) {
+            invalidate();
+            return;
+        }
+        store(version.incrementAndGet(), info);
+    }
+
+    private synchronized Snapshot store(long version, ServerInfo info) {
+        Snapshot snapshot = new Snapshot(version, info, new RawJson(gson.toJson(info)));
+        if (version == this.version.get()) {
+            current = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * 丢弃快照, 下一次查询时重新调用平台
+     */
+    public synchronized void invalidate() {
+        version.incrementAndGet();
+        current = null;
+    }
+
+    /**
+     * 当前快照的服务器信息, 尚未加载时为 null. 返回的对象被快照持有, 不应修改
+     */
+    public ServerInfo getInfo() {
+        Snapshot snapshot = current;
+        return snapshot == null ? null : snapshot.info;
+    }
+
+    /**
+     * 当前快照的版本, 尚未加载时为 -1
+     */
+    public long getVersion() {
+        Snapshot snapshot = current;
+        return snapshot == null ? -1 : snapshot.version;
+    }
+
+    /**
+     * 直接使用快照回答的查询数
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * 调用平台加载服务器信息的次数
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+}
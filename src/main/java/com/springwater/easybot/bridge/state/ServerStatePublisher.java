@@ -0,0 +1,167 @@
+package com.springwater.easybot.bridge.state;
+
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.packet.PacketWithCallBackId;
+import com.springwater.easybot.bridge.packet.ServerStateDeltaPacket;
+import com.springwater.easybot.bridge.packet.ServerStatePacket;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 合并服务器状态更新
+ * <p>
+ * 窗口期内只发送最后一次的状态; 主程序支持增量时, 以玩家集合形式提交的状态只发送相对上次已发送状态的变化,
+ * 重连后或发送失败后的下一次发送使用完整快照
+ */
+public final class ServerStatePublisher {
+    private final ScheduledExecutorService scheduler;
+    private final Function<PacketWithCallBackId, CompletableFuture<Void>> sender;
+    private final Supplier<String> token;
+    private final Object lock = new Object();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder deltas = new LongAdder();
+
+    private String latestRaw;
+    private Set<String> latestPlayers;
+    private boolean dirty;
+    private ScheduledFuture<?> flushTask;
+    /**
+     * 最后一次发送的玩家集合, 为 null 时下一次必须发送完整快照
+     */
+    private Set<String> sentPlayers;
+    private boolean deltaSupported;
+
+    public ServerStatePublisher(ScheduledExecutorService scheduler, Function<PacketWithCallBackId, CompletableFuture<Void>> sender, Supplier<String> token) {
+        this.scheduler = scheduler;
+        this.sender = sender;
+        this.token = token;
+    }
+
+    /**
+     * 提交原始格式的状态, 总是以完整快照发送
+     */
+    public void update(String players) {
+        synchronized (lock) {
+            latestRaw = players;
+            latestPlayers = null;
+            markDirty();
+        }
+    }
+
+    /**
+     * 提交玩家集合形式的状态, 可以以增量发送
+     */
+    public void update(Collection<String> players) {
+        synchronized (lock) {
+            latestRaw = null;
+            latestPlayers = new LinkedHashSet<>(players);
+            markDirty();
+        }
+    }
+
+    private void markDirty() {
+        if (dirty) {
+            coalesced.increment();
+        }
+        dirty = true;
+        if (flushTask == null) {
+            flushTask = scheduler.schedule(this::flush, ClientProfile.getServerStateWindowMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 连接重新就绪, 之后发送完整快照
+     *
+     * @param deltaSupported 主程序是否支持增量
+     */
+    public void reset(boolean deltaSupported) {
+        synchronized (lock) {
+            this.deltaSupported = deltaSupported;
+            sentPlayers = null;
+            if (latestRaw != null || latestPlayers != null) {
+                markDirty();
+            }
+        }
+    }
+
+    /**
+     * 立即发送窗口内最后一次的状态
+     */
+    public void flush() {
+        PacketWithCallBackId packet;
+        final Set<String> sending;
+        synchronized (lock) {
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+            if (!dirty) return;
+            dirty = false;
+            sending = latestPlayers;
+            if (sending != null && deltaSupported && sentPlayers != null) {
+                List<String> joined = new ArrayList<>();
+                List<String> left = new ArrayList<>();
+                for (String player : sending) {
+                    if (!sentPlayers.contains(player)) joined.add(player);
+                }
+                for (String player : sentPlayers) {
+                    if (!sending.contains(player)) left.add(player);
+                }
+                if (joined.isEmpty() && left.isEmpty()) return;
+                ServerStateDeltaPacket delta = new ServerStateDeltaPacket();
+                delta.setToken(token.get());
+                delta.setJoined(joined);
+                delta.setLeft(left);
+                delta.setCallBackId("");
+                packet = delta;
+                deltas.increment();
+            } else {
+                ServerStatePacket full = new ServerStatePacket();
+                full.setToken(token.get());
+                full.setPlayers(sending != null ? String.join(",", sending) : latestRaw);
+                full.setCallBackId("");
+                packet = full;
+            }
+            sentPlayers = sending;
+            published.increment();
+        }
+
+        sender.apply(packet).whenComplete((v, ex) -> {
+            if (ex == null) return;
+            synchronized (lock) {
+                // 主程序可能没有收到, 之后的增量也就失去了基准, 下一次发送完整快照.
+                // 不在此重试: 连接断开时发送会立即失败, 重新连接后 reset 会补发完整快照
+                sentPlayers = null;
+            }
+        });
+    }
+
+    /**
+     * 实际发送的状态数量
+     */
+    public long getPublished() {
+        return published.sum();
+    }
+
+    /**
+     * 被后续状态覆盖而未发送的更新数量
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * 以增量形式发送的状态数量
+     */
+    public long getDeltas() {
+        return deltas.sum();
+    }
+}
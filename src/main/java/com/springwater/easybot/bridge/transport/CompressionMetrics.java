@@ -0,0 +1,113 @@
+package com.springwater.easybot.bridge.transport;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个连接的压缩统计
+ */
+public final class CompressionMetrics {
+    /**
+     * 本连接是否协商了 permessage-deflate
+     */
+    @Getter
+    @Setter
+    private volatile boolean negotiated;
+
+    private final LongAdder outboundRawBytes = new LongAdder();
+    private final LongAdder outboundWireBytes = new LongAdder();
+    private final LongAdder inboundWireBytes = new LongAdder();
+    private final LongAdder inboundRawBytes = new LongAdder();
+    private final LongAdder compressedMessages = new LongAdder();
+    private final LongAdder skippedMessages = new LongAdder();
+    private final LongAdder deflateCpuNanos = new LongAdder();
+
+    void recordCompressed(long rawBytes, long cpuNanos) {
+        compressedMessages.increment();
+        outboundRawBytes.add(rawBytes);
+        deflateCpuNanos.add(cpuNanos);
+    }
+
+    void recordOutboundWire(long bytes) {
+        outboundWireBytes.add(bytes);
+    }
+
+    void recordSkipped() {
+        skippedMessages.increment();
+    }
+
+    void recordInboundWire(long bytes) {
+        inboundWireBytes.add(bytes);
+    }
+
+    void recordInboundRaw(long bytes) {
+        inboundRawBytes.add(bytes);
+    }
+
+    /**
+     * 压缩前的出站字节数, 只统计实际压缩的消息
+     */
+    public long getOutboundRawBytes() {
+        return outboundRawBytes.sum();
+    }
+
+    /**
+     * 压缩后的出站字节数
+     */
+    public long getOutboundWireBytes() {
+        return outboundWireBytes.sum();
+    }
+
+    /**
+     * 解压前的入站字节数
+     */
+    public long getInboundWireBytes() {
+        return inboundWireBytes.sum();
+    }
+
+    /**
+     * 解压后的入站字节数
+     */
+    public long getInboundRawBytes() {
+        return inboundRawBytes.sum();
+    }
+
+    /**
+     * 经过压缩的出站消息数
+     */
+    public long getCompressedMessages() {
+        return compressedMessages.sum();
+    }
+
+    /**
+     * 低于阈值而未压缩的出站消息数
+     */
+    public long getSkippedMessages() {
+        return skippedMessages.sum();
+    }
+
+    /**
+     * 压缩出站消息消耗的 CPU 时间 (纳秒), 只包含在发送线程上同步完成的部分
+     */
+    public long getDeflateCpuNanos() {
+        return deflateCpuNanos.sum();
+    }
+
+    /**
+     * 出站压缩率 (压缩后 / 压缩前), 没有数据时为 1
+     */
+    public double getOutboundRatio() {
+        long raw = getOutboundRawBytes();
+        return raw == 0 ? 1 : (double) getOutboundWireBytes() / raw;
+    }
+
+    /**
+     * 入站压缩率 (解压前 / 解压后), 没有数据时为 1
+     */
+    public double getInboundRatio() {
+        long raw = getInboundRawBytes();
+        return raw == 0 ? 1 : (double) getInboundWireBytes() / raw;
+    }
+}
@@ -0,0 +1,226 @@
+package com.springwater.easybot.bridge.transport;
+
+import com.springwater.easybot.bridge.ClientProfile;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个连接的出站队列
+ * <p>
+ * 每个通道独立限制帧数与字符数 (二进制帧按字节数计), 同一时间只有一帧在写出; 写完后总是优先发送高优先级通道的帧,
+ * 因此大量同步消息不会拖慢回调与心跳
+ */
+public final class OutboundQueue {
+    @SuppressWarnings("ClassCanBeRecord") // 需要兼容 Java 8
+    private static final class Entry {
+        /**
+         * 文本帧为 String, 二进制帧为 byte[]
+         */
+        private final Object frame;
+        private final int size;
+        private final CompletableFuture<Void> future;
+
+        private Entry(Object frame, int size, CompletableFuture<Void> future) {
+            this.frame = frame;
+            this.size = size;
+            this.future = future;
+        }
+    }
+
+    private static final SendLane[] LANES = SendLane.values();
+
+    private final RemoteEndpoint remote;
+    private final Object lock = new Object();
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Entry>[] queues = new ArrayDeque[LANES.length];
+    private final long[] queuedChars = new long[LANES.length];
+    private final LongAdder[] dropped = new LongAdder[LANES.length];
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private boolean writing;
+    private Throwable closeCause;
+
+    public OutboundQueue(RemoteEndpoint remote) {
+        this.remote = remote;
+        for (int i = 0; i < LANES.length; i++) {
+            queues[i] = new ArrayDeque<>();
+            dropped[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 把一帧放入指定通道
+     *
+     * @return 帧被实际写出后完成; 被拒绝, 被丢弃或连接关闭时异常完成
+     */
+    public CompletableFuture<Void> enqueue(SendLane lane, String frame) {
+        return enqueue(lane, frame, frame.length());
+    }
+
+    /**
+     * 把一个二进制帧放入指定通道
+     *
+     * @return 帧被实际写出后完成; 被拒绝, 被丢弃或连接关闭时异常完成
+     */
+    public CompletableFuture<Void> enqueue(SendLane lane, byte[] frame) {
+        return enqueue(lane, frame, frame.length);
+    }
+
+    private CompletableFuture<Void> enqueue(SendLane lane, Object frame, int size) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Entry evicted = null;
+        int index = lane.ordinal();
+        synchronized (lock) {
+            if (closeCause != null) {
+                future.completeExceptionally(closeCause);
+                return future;
+            }
+            ArrayDeque<Entry> queue = queues[index];
+            if (isFull(queue, index, size)) {
+                if (overflowPolicy(lane) == OverflowPolicy.REJECT || queue.isEmpty()) {
+                    dropped[index].increment();
+                    future.completeExceptionally(new RejectedExecutionException("发送队列 " + lane + " 已满"));
+                    return future;
+                }
+                evicted = queue.pollFirst();
+                queuedChars[index] -= evicted.size;
+                dropped[index].increment();
+            }
+            queue.addLast(new Entry(frame, size, future));
+            queuedChars[index] += size;
+        }
+        if (evicted != null) {
+            evicted.future.completeExceptionally(new RejectedExecutionException("发送队列 " + lane + " 已满, 最早的消息被丢弃"));
+        }
+        drain();
+        return future;
+    }
+
+    private boolean isFull(ArrayDeque<Entry> queue, int index, int chars) {
+        return queue.size() >= ClientProfile.getSendQueueMaxFrames()
+                || queuedChars[index] + chars > ClientProfile.getSendQueueMaxChars();
+    }
+
+    private static OverflowPolicy overflowPolicy(SendLane lane) {
+        switch (lane) {
+            case SYNC:
+                return ClientProfile.getSyncOverflowPolicy();
+            case REQUEST:
+                return ClientProfile.getRequestOverflowPolicy();
+            default:
+                return OverflowPolicy.REJECT;
+        }
+    }
+
+    /**
+     * 若当前没有帧在写出, 则取出优先级最高的一帧开始写
+     * <p>
+     * 写完成回调可能在 sendString 内同步触发, 这里用计数循环代替递归
+     */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        while (true) {
+            Entry next = null;
+            synchronized (lock) {
+                if (!writing && closeCause == null) {
+                    next = poll();
+                    writing = next != null;
+                }
+            }
+            if (next != null) {
+                write(next);
+            }
+            missed = drainRequests.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    private Entry poll() {
+        for (int i = 0; i < queues.length; i++) {
+            Entry entry = queues[i].pollFirst();
+            if (entry != null) {
+                queuedChars[i] -= entry.size;
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void write(Entry entry) {
+        WriteCallback callback = new WriteCallback() {
+            @Override
+            public void writeFailed(Throwable cause) {
+                finish();
+                entry.future.completeExceptionally(cause);
+            }
+
+            @Override
+            public void writeSuccess() {
+                finish();
+                entry.future.complete(null);
+            }
+        };
+        try {
+            if (entry.frame instanceof byte[]) {
+                remote.sendBytes(ByteBuffer.wrap((byte[]) entry.frame), callback);
+            } else {
+                remote.sendString((String) entry.frame, callback);
+            }
+        } catch (Throwable e) {
+            callback.writeFailed(e);
+        }
+    }
+
+    private void finish() {
+        synchronized (lock) {
+            writing = false;
+        }
+        drain();
+    }
+
+    /**
+     * 关闭队列, 所有未写出的帧以指定原因异常完成
+     */
+    public void close(Throwable cause) {
+        ArrayDeque<Entry> pending = new ArrayDeque<>();
+        synchronized (lock) {
+            if (closeCause != null) return;
+            closeCause = cause;
+            for (int i = 0; i < queues.length; i++) {
+                pending.addAll(queues[i]);
+                queues[i].clear();
+                queuedChars[i] = 0;
+            }
+        }
+        for (Entry entry : pending) {
+            entry.future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * 通道中等待写出的帧数
+     */
+    public int getPendingFrames(SendLane lane) {
+        synchronized (lock) {
+            return queues[lane.ordinal()].size();
+        }
+    }
+
+    /**
+     * 通道因溢出而拒绝或丢弃的帧数
+     */
+    public long getDroppedFrames(SendLane lane) {
+        return dropped[lane.ordinal()].sum();
+    }
+}
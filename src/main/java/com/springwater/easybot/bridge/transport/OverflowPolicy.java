@@ -0,0 +1,15 @@
+package com.springwater.easybot.bridge.transport;
+
+/**
+ * 通道已满时的处理方式
+ */
+public enum OverflowPolicy {
+    /**
+     * 拒绝新帧
+     */
+    REJECT,
+    /**
+     * 丢弃通道中最早的帧, 接收新帧
+     */
+    DROP_OLDEST
+}
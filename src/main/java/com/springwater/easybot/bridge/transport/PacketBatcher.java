@@ -0,0 +1,185 @@
+package com.springwater.easybot.bridge.transport;
+
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.codec.OutboundEncoder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 把无需回调的同步消息合并为批量帧
+ * <p>
+ * 消息数或字符数达到上限时立即发送, 否则最多等待 {@link ClientProfile#getBatchLingerMillis()} 毫秒
+ */
+public final class PacketBatcher {
+    /**
+     * 批量帧的操作名
+     */
+    public static final String OPERATION = "BATCH";
+
+    private final OutboundQueue queue;
+    private final OutboundEncoder encoder;
+    private final ScheduledExecutorService scheduler;
+    private final Object lock = new Object();
+    /**
+     * 串行化发送, 保证批量帧按加入顺序进入队列
+     */
+    private final Object flushLock = new Object();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedPackets = new LongAdder();
+
+    /**
+     * 同一连接上的帧要么都是文本 (String), 要么都是二进制 (byte[])
+     */
+    private List<Object> frames = new ArrayList<>();
+    private List<CompletableFuture<Void>> futures = new ArrayList<>();
+    private int chars;
+    private ScheduledFuture<?> lingerTask;
+    private Throwable closeCause;
+
+    public PacketBatcher(OutboundQueue queue, OutboundEncoder encoder, ScheduledExecutorService scheduler) {
+        this.queue = queue;
+        this.encoder = encoder;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 加入一条已编码的消息
+     *
+     * @return 所在的批量帧被写出后完成
+     */
+    public CompletableFuture<Void> add(String frame) {
+        return add(frame, frame.length());
+    }
+
+    /**
+     * 加入一条已编码的二进制消息
+     *
+     * @return 所在的批量帧被写出后完成
+     */
+    public CompletableFuture<Void> add(byte[] frame) {
+        return add(frame, frame.length);
+    }
+
+    private CompletableFuture<Void> add(Object frame, int size) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        boolean full;
+        synchronized (lock) {
+            if (closeCause != null) {
+                future.completeExceptionally(closeCause);
+                return future;
+            }
+            frames.add(frame);
+            futures.add(future);
+            chars += size;
+            full = frames.size() >= ClientProfile.getBatchMaxPackets() || chars >= ClientProfile.getBatchMaxChars();
+            if (!full && lingerTask == null) {
+                lingerTask = scheduler.schedule(this::flush, ClientProfile.getBatchLingerMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full) {
+            flush();
+        }
+        return future;
+    }
+
+    /**
+     * 立即发送当前缓存的消息
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<Object> pendingFrames;
+            List<CompletableFuture<Void>> pendingFutures;
+            synchronized (lock) {
+                if (lingerTask != null) {
+                    lingerTask.cancel(false);
+                    lingerTask = null;
+                }
+                if (frames.isEmpty()) return;
+                pendingFrames = frames;
+                pendingFutures = futures;
+                frames = new ArrayList<>();
+                futures = new ArrayList<>();
+                chars = 0;
+            }
+
+            CompletableFuture<Void> written;
+            try {
+                written = pendingFrames.get(0) instanceof byte[] ? queue.enqueue(SendLane.SYNC, encodeBinary(pendingFrames)) : queue.enqueue(SendLane.SYNC, encodeText(pendingFrames));
+            } catch (Exception e) {
+                written = new CompletableFuture<>();
+                written.completeExceptionally(e);
+            }
+            if (pendingFrames.size() > 1) {
+                batches.increment();
+                batchedPackets.add(pendingFrames.size());
+            }
+            written.whenComplete((v, ex) -> {
+                for (CompletableFuture<Void> future : pendingFutures) {
+                    if (ex != null) {
+                        future.completeExceptionally(ex);
+                    } else {
+                        future.complete(null);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 只有一条时无需包装
+     */
+    @SuppressWarnings("unchecked")
+    private String encodeText(List<Object> pendingFrames) throws IOException {
+        List<String> texts = (List<String>) (List<?>) pendingFrames;
+        return texts.size() == 1 ? texts.get(0) : encoder.encodeBatch(OPERATION, texts);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] encodeBinary(List<Object> pendingFrames) throws IOException {
+        List<byte[]> binaries = (List<byte[]>) (List<?>) pendingFrames;
+        return binaries.size() == 1 ? binaries.get(0) : encoder.encodeBinaryBatch(OPERATION, binaries);
+    }
+
+    /**
+     * 关闭合并器, 尚未发送的消息以指定原因异常完成
+     */
+    public void close(Throwable cause) {
+        List<CompletableFuture<Void>> pendingFutures;
+        synchronized (lock) {
+            if (closeCause != null) return;
+            closeCause = cause;
+            if (lingerTask != null) {
+                lingerTask.cancel(false);
+                lingerTask = null;
+            }
+            pendingFutures = futures;
+            frames = new ArrayList<>();
+            futures = new ArrayList<>();
+            chars = 0;
+        }
+        for (CompletableFuture<Void> future : pendingFutures) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * 已发送的批量帧数量
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * 通过批量帧发送的消息数量
+     */
+    public long getBatchedPackets() {
+        return batchedPackets.sum();
+    }
+}
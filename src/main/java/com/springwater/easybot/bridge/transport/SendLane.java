@@ -0,0 +1,23 @@
+package com.springwater.easybot.bridge.transport;
+
+/**
+ * 出站队列的优先级通道, 声明顺序即发送优先级
+ */
+public enum SendLane {
+    /**
+     * 心跳与身份验证等控制帧
+     */
+    CONTROL,
+    /**
+     * 对主程序请求的回调
+     */
+    CALLBACK,
+    /**
+     * 需要等待主程序回调的请求
+     */
+    REQUEST,
+    /**
+     * 无需回调的同步消息
+     */
+    SYNC
+}
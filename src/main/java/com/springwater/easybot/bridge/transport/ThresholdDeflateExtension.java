@@ -0,0 +1,82 @@
+package com.springwater.easybot.bridge.transport;
+
+import com.springwater.easybot.bridge.ClientProfile;
+import org.eclipse.jetty.websocket.api.BatchMode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.api.extensions.Frame;
+import org.eclipse.jetty.websocket.common.OpCode;
+import org.eclipse.jetty.websocket.common.extensions.compress.PerMessageDeflateExtension;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * 带大小阈值与统计的 permessage-deflate
+ * <p>
+ * 小于 {@link ClientProfile#getCompressionThreshold()} 的完整消息不设置 RSV1, 直接交给下一层发送.
+ * 出站队列保证同一时间只有一条消息在写出, 因此绕过压缩队列不会打乱顺序
+ */
+public class ThresholdDeflateExtension extends PerMessageDeflateExtension {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private volatile CompressionMetrics metrics = new CompressionMetrics();
+    private boolean incomingCompressed;
+    private long downstreamNanos;
+
+    public void setMetrics(CompressionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void outgoingFrame(Frame frame, WriteCallback callback, BatchMode batchMode) {
+        byte opCode = frame.getOpCode();
+        boolean wholeMessage = frame.isFin() && (opCode == OpCode.TEXT || opCode == OpCode.BINARY);
+        if (wholeMessage && frame.getPayloadLength() < ClientProfile.getCompressionThreshold()) {
+            metrics.recordSkipped();
+            getNextOutgoing().outgoingFrame(frame, callback, batchMode);
+            return;
+        }
+        if (!frame.getType().isData()) {
+            super.outgoingFrame(frame, callback, batchMode);
+            return;
+        }
+
+        long rawBytes = frame.getPayloadLength();
+        downstreamNanos = 0;
+        long start = cpuTime();
+        super.outgoingFrame(frame, callback, batchMode);
+        long elapsed = cpuTime() - start - downstreamNanos;
+        metrics.recordCompressed(rawBytes, Math.max(0, elapsed));
+    }
+
+    @Override
+    protected void nextOutgoingFrame(Frame frame, WriteCallback callback, BatchMode batchMode) {
+        metrics.recordOutboundWire(frame.getPayloadLength());
+        long start = cpuTime();
+        super.nextOutgoingFrame(frame, callback, batchMode);
+        downstreamNanos += cpuTime() - start;
+    }
+
+    @Override
+    public void incomingFrame(Frame frame) {
+        if (frame.getOpCode() != OpCode.CONTINUATION && frame.getType().isData()) {
+            incomingCompressed = frame.isRsv1();
+        }
+        if (incomingCompressed && frame.getType().isData()) {
+            metrics.recordInboundWire(frame.getPayloadLength());
+        }
+        super.incomingFrame(frame);
+    }
+
+    @Override
+    protected void nextIncomingFrame(Frame frame) {
+        if (incomingCompressed && frame.getType().isData()) {
+            metrics.recordInboundRaw(frame.getPayloadLength());
+        }
+        super.nextIncomingFrame(frame);
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+}
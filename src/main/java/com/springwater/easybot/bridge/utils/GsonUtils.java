@@ -3,7 +3,10 @@ package com.springwater.easybot.bridge.utils;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
 import java.util.Map;
 
 public class GsonUtils {
@@ -31,4 +34,34 @@ public class GsonUtils {
 
         return jsonObject;
     }
+
+    /**
+     * 通过写入器的基本方法逐个写出一棵树, 适用于不支持 {@link JsonWriter#jsonValue(String)} 的写入器
+     *
+     * @param out     写入器
+     * @param element 要写出的树, 为 null 时写出 null
+     */
+    public static void write(JsonWriter out, JsonElement element) throws IOException {
+        if (element == null || element.isJsonNull()) {
+            out.nullValue();
+        } else if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) out.value(primitive.getAsBoolean());
+            else if (primitive.isNumber()) out.value(primitive.getAsNumber());
+            else out.value(primitive.getAsString());
+        } else if (element.isJsonArray()) {
+            out.beginArray();
+            for (JsonElement item : element.getAsJsonArray()) {
+                write(out, item);
+            }
+            out.endArray();
+        } else {
+            out.beginObject();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                out.name(entry.getKey());
+                write(out, entry.getValue());
+            }
+            out.endObject();
+        }
+    }
 }
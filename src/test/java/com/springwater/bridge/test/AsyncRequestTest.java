@@ -0,0 +1,159 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.api.BridgeEventHandler;
+import com.springwater.easybot.bridge.api.IBridgeExtension;
+import com.springwater.easybot.bridge.api.IBridgeListener;
+import com.springwater.easybot.bridge.api.events.raw.BridgeSendPacketEvent;
+import com.springwater.easybot.bridge.callback.RequestOptions;
+import com.springwater.easybot.bridge.packet.GetBindInfoResultPacket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 以发送事件模拟主程序: 收到 GET_BIND_INFO 时在发送线程上直接回复
+ */
+public class AsyncRequestTest implements IBridgeListener, IBridgeExtension {
+    private final AtomicInteger bindRequests = new AtomicInteger();
+    private final CountDownLatch received = new CountDownLatch(1);
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private BridgeClient client;
+    private ExecutorService caller;
+
+    @BridgeEventHandler
+    public void onSend(BridgeSendPacketEvent event) throws InterruptedException {
+        JsonObject packet = JsonParser.parseString(event.getEncoded()).getAsJsonObject();
+        if (!packet.has("exec_op") || !"GET_BIND_INFO".equals(packet.get("exec_op").getAsString())) {
+            return;
+        }
+        String playerName = packet.get("player_name").getAsString();
+        if (playerName.equals("Nobody")) {
+            return;
+        }
+        bindRequests.incrementAndGet();
+        received.countDown();
+        gate.await();
+        client.onWebSocketText("{\"op\":5,\"callback_id\":\"" + packet.get("callback_id").getAsString()
+                + "\",\"name\":\"" + playerName + "\",\"platform\":\"QQ\"}");
+    }
+
+    @BeforeEach
+    public void start() {
+        client = new BridgeClient("ws://127.0.0.1:1/bridge", new MockBridgeBehavior());
+        caller = Executors.newSingleThreadExecutor(r -> new Thread(r, "Caller-Executor"));
+        BridgeClient.getEventManager().register(this, this);
+    }
+
+    @AfterEach
+    public void stop() {
+        BridgeClient.getEventManager().unregister(this);
+        client.close();
+        caller.shutdownNow();
+    }
+
+    @Test
+    public void deliversOnCallerExecutor() throws Exception {
+        gate = new CountDownLatch(1);
+        RequestOptions options = RequestOptions.completeOn(caller);
+        ExecutorService first = Executors.newSingleThreadExecutor();
+        try {
+            // 第一个请求在发送时被主程序挂起, 第二个相同的请求共享其结果
+            Future<CompletableFuture<GetBindInfoResultPacket>> leader = first.submit(() -> client.getBindInfoAsync("Steve", options));
+            Assertions.assertTrue(received.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> follower = client.getBindInfoAsync("Steve", options).thenApply(result -> Thread.currentThread().getName());
+            gate.countDown();
+            Assertions.assertEquals("Steve", leader.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS).getName());
+            Assertions.assertEquals("Caller-Executor", follower.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, bindRequests.get());
+        } finally {
+            first.shutdownNow();
+        }
+
+        // 命中缓存时也在指定线程上交付, 先占住该线程以确认结果没有在调用线程上直接交付
+        CountDownLatch busy = new CountDownLatch(1);
+        caller.execute(() -> {
+            try {
+                busy.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        CompletableFuture<GetBindInfoResultPacket> hit = client.getBindInfoAsync("Steve", options);
+        Assertions.assertFalse(hit.isDone());
+        CompletableFuture<String> cached = hit.thenApply(result -> Thread.currentThread().getName() + ":" + result.getPlatform());
+        busy.countDown();
+        Assertions.assertEquals("Caller-Executor:QQ", cached.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, bindRequests.get());
+
+        // 未指定线程时在完成的线程上交付
+        CompletableFuture<GetBindInfoResultPacket> direct = client.getBindInfoAsync("Alex");
+        Assertions.assertTrue(direct.isDone());
+        Assertions.assertEquals("Alex", direct.get().getName());
+    }
+
+    @Test
+    public void coalescesIgnoringNameCase() throws Exception {
+        gate = new CountDownLatch(1);
+        ExecutorService first = Executors.newSingleThreadExecutor();
+        try {
+            Future<CompletableFuture<GetBindInfoResultPacket>> leader = first.submit(() -> client.getBindInfoAsync("Steve"));
+            Assertions.assertTrue(received.await(5, TimeUnit.SECONDS));
+            CompletableFuture<GetBindInfoResultPacket> follower = client.getBindInfoAsync("STEVE");
+            gate.countDown();
+            Assertions.assertSame(leader.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS), follower.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, bindRequests.get());
+        } finally {
+            first.shutdownNow();
+        }
+    }
+
+    @Test
+    public void blockingWrappersKeepExceptionTypes() {
+        // 请求无法写出时立即失败
+        ExecutionException failed = Assertions.assertThrows(ExecutionException.class, () -> client.getBindInfo("Nobody"));
+        Assertions.assertNotNull(failed.getCause());
+        Assertions.assertThrows(ExecutionException.class, () -> client.getBindInfo("Nobody", RequestOptions.timeout(1, TimeUnit.SECONDS)));
+        Assertions.assertThrows(CompletionException.class, () -> client.rpcCall("bridge:none", "echo", new JsonObject()));
+        CompletableFuture<JsonObject> async = client.rpcCallAsync("bridge:none", "echo", new JsonObject(), RequestOptions.completeOn(caller));
+        ExecutionException asyncFailed = Assertions.assertThrows(ExecutionException.class, () -> async.get(5, TimeUnit.SECONDS));
+        Assertions.assertNotNull(asyncFailed.getCause());
+    }
+
+    @Override
+    public String getIdentifier() {
+        return "bridge:async";
+    }
+
+    @Override
+    public String getName() {
+        return "AsyncRequestTest";
+    }
+
+    @Override
+    public String getDescription() {
+        return "";
+    }
+
+    @Override
+    public String getAuthor() {
+        return "";
+    }
+
+    @Override
+    public String getVersion() {
+        return "1.0.0";
+    }
+
+    @Override
+    public List<String> requiredPlugins() {
+        return Collections.emptyList();
+    }
+}
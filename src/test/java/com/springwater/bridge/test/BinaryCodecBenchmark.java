@@ -0,0 +1,74 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.Gson;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.codec.InboundFrame;
+import com.springwater.easybot.bridge.codec.OutboundEncoder;
+import com.springwater.easybot.bridge.packet.PlayerInfoWithRaw;
+import com.springwater.easybot.bridge.packet.SyncMessagePacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+@Tag("manual")
+public class BinaryCodecBenchmark {
+    private static final int WARMUP = 200_000;
+    private static final int ROUNDS = 1_000_000;
+
+    private final Gson gson = BridgeClient.getGson();
+    private final OutboundEncoder encoder = new OutboundEncoder(gson);
+
+    @Test
+    public void compareTextAndBinary() throws Exception {
+        PlayerInfoWithRaw player = new PlayerInfoWithRaw();
+        player.setName("MiuxuE");
+        player.setUuid("8667ba71-b85a-4004-af54-457a9734eed7");
+        player.setIp("127.0.0.1");
+        SyncMessagePacket packet = new SyncMessagePacket();
+        packet.setPlayer(player);
+        packet.setMessage("hello from easybot");
+        packet.setUseCommand(false);
+        packet.setCallBackId("");
+
+        String text = encoder.encode(packet);
+        byte[] binary = encoder.encodeBinary(packet);
+        for (int i = 0; i < WARMUP; i++) {
+            encoder.encode(packet);
+            encoder.encodeBinary(packet);
+            InboundFrame.decode(text).as(gson, SyncMessagePacket.class);
+            InboundFrame.decodeBinary(binary, 0, binary.length).as(gson, SyncMessagePacket.class);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            encoder.encode(packet).getBytes(StandardCharsets.UTF_8);
+        }
+        long textEncode = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            encoder.encodeBinary(packet);
+        }
+        long binaryEncode = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            InboundFrame.decode(text).as(gson, SyncMessagePacket.class);
+        }
+        long textDecode = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            InboundFrame.decodeBinary(binary, 0, binary.length).as(gson, SyncMessagePacket.class);
+        }
+        long binaryDecode = System.nanoTime() - start;
+
+        int textBytes = text.getBytes(StandardCharsets.UTF_8).length;
+        System.out.println("帧大小: 文本 " + textBytes + " 字节, 二进制 " + binary.length + " 字节");
+        System.out.println("编码: 文本 " + textEncode / ROUNDS + " ns/帧, 二进制 " + binaryEncode / ROUNDS + " ns/帧");
+        System.out.println("解码: 文本 " + textDecode / ROUNDS + " ns/帧, 二进制 " + binaryDecode / ROUNDS + " ns/帧");
+        Assertions.assertTrue(binary.length < textBytes);
+    }
+}
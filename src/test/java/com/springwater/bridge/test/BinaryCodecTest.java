@@ -0,0 +1,137 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.OpCode;
+import com.springwater.easybot.bridge.codec.BinaryDecoder;
+import com.springwater.easybot.bridge.codec.InboundFrame;
+import com.springwater.easybot.bridge.codec.OutboundCallBack;
+import com.springwater.easybot.bridge.codec.OutboundEncoder;
+import com.springwater.easybot.bridge.model.PlayerInfo;
+import com.springwater.easybot.bridge.packet.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class BinaryCodecTest {
+    private final Gson gson = BridgeClient.getGson();
+    private final OutboundEncoder encoder = new OutboundEncoder(gson);
+
+    @Test
+    public void roundTripsPackets() throws Exception {
+        PlayerInfoWithRaw player = new PlayerInfoWithRaw();
+        player.setName("MiuxuE");
+        player.setUuid("8667ba71-b85a-4004-af54-457a9734eed7");
+        SyncMessagePacket sync = new SyncMessagePacket();
+        sync.setPlayer(player);
+        sync.setMessage("你好 😀 <&> \"quoted\"");
+        sync.setUseCommand(true);
+        sync.setCallBackId("");
+        assertRoundTrip(sync);
+
+        PlayerInfo info = new PlayerInfo();
+        info.setPlayerName("Steve");
+        info.setBedrock(true);
+        PlayerListPacket list = new PlayerListPacket();
+        list.setList(Arrays.asList(info, info));
+        assertRoundTrip(list);
+
+        JsonObject tree = new JsonObject();
+        tree.addProperty("count", 42);
+        tree.addProperty("negative", -7L);
+        tree.addProperty("ratio", 0.25);
+        tree.add("nested", gson.fromJson("{\"a\":[1,2.5,\"x\",null,true],\"big\":12345678901234}", JsonObject.class));
+        assertRoundTrip(tree);
+
+        assertRoundTrip(new HeartbeatPacket());
+    }
+
+    @Test
+    public void encodesCallBacksLikeText() throws Exception {
+        RunCommandResultPacket result = new RunCommandResultPacket();
+        result.setSuccess(true);
+        result.setText("ok");
+        OutboundCallBack callBack = new OutboundCallBack("42", "RUN_COMMAND");
+        callBack.setResult(result);
+        byte[] binary = encoder.encodeBinary(callBack);
+        Assertions.assertEquals(gson.fromJson(encoder.encode(callBack), JsonObject.class), BinaryDecoder.decode(binary, 0, binary.length));
+        Assertions.assertTrue(binary.length < encoder.encode(callBack).length());
+    }
+
+    @Test
+    public void decodesInboundFrames() throws Exception {
+        JsonObject command = new JsonObject();
+        command.addProperty("op", OpCode.Packet.getValue());
+        command.addProperty("callback_id", "7");
+        command.addProperty("exec_op", "RUN_COMMAND");
+        command.addProperty("player_name", "MiuxuE");
+        command.addProperty("command", "list");
+        command.addProperty("enable_papi", true);
+        byte[] payload = frame(encoder.encodeBinary(command));
+
+        InboundFrame frame = InboundFrame.decodeBinary(payload, 3, payload.length - 6);
+        Assertions.assertNotNull(frame);
+        Assertions.assertEquals(OpCode.Packet, frame.getOpCode());
+        Assertions.assertEquals("7", frame.getCallBackId());
+        Assertions.assertEquals("RUN_COMMAND", frame.getOperation());
+        RunCommandPacket packet = frame.as(gson, RunCommandPacket.class);
+        Assertions.assertEquals("list", packet.getCommand());
+        Assertions.assertTrue(packet.isEnablePapi());
+
+        Assertions.assertNull(InboundFrame.decodeBinary(payload, 3, 4));
+        Assertions.assertNull(InboundFrame.decodeBinary(new byte[]{99, 7, 9}, 0, 3));
+    }
+
+    @Test
+    public void encodesProtocolKeysFromDictionary() throws Exception {
+        JsonObject request = new JsonObject();
+        request.addProperty("op", OpCode.Packet.getValue());
+        request.addProperty("callback_id", "7");
+        request.addProperty("exec_op", "PLACEHOLDER_API_BATCH_QUERY");
+        request.addProperty("deadline_ms", 5000);
+        request.addProperty("since_version", 3);
+        request.addProperty("delta", true);
+        request.addProperty("unchanged", false);
+        request.addProperty("support_papi_batch", true);
+        request.addProperty("skin_url", "");
+        request.add("queries", new JsonArray());
+        request.add("results", new JsonArray());
+        byte[] binary = encoder.encodeBinary(request);
+        Assertions.assertEquals(request, BinaryDecoder.decode(binary, 0, binary.length));
+        String text = new String(binary, StandardCharsets.ISO_8859_1);
+        for (String key : request.keySet()) {
+            Assertions.assertFalse(text.contains(key), key + " 应当以字典下标编码");
+        }
+        Assertions.assertFalse(text.contains("PLACEHOLDER_API"));
+    }
+
+    @Test
+    public void batchesBinaryFrames() throws Exception {
+        DataRecordPacket record = new DataRecordPacket();
+        record.setType(RecordTypeEnum.Chat);
+        record.setData("data");
+        byte[] one = encoder.encodeBinary(record);
+        byte[] batch = encoder.encodeBinaryBatch("BATCH", Arrays.asList(one, one));
+        JsonArray packets = BinaryDecoder.decode(batch, 0, batch.length).getAsJsonObject().getAsJsonArray("packets");
+        Assertions.assertEquals(2, packets.size());
+        Assertions.assertEquals(gson.toJsonTree(record), packets.get(1));
+    }
+
+    private void assertRoundTrip(Object packet) throws Exception {
+        byte[] binary = encoder.encodeBinary(packet);
+        Assertions.assertEquals(gson.fromJson(encoder.encode(packet), JsonObject.class), BinaryDecoder.decode(binary, 0, binary.length));
+    }
+
+    /**
+     * 模拟 Jetty 交给监听器的数组: 有效数据前后还有其他字节
+     */
+    private static byte[] frame(byte[] binary) {
+        byte[] payload = new byte[binary.length + 6];
+        System.arraycopy(binary, 0, payload, 3, binary.length);
+        return payload;
+    }
+}
@@ -0,0 +1,46 @@
+package com.springwater.bridge.test;
+
+import com.springwater.easybot.bridge.cache.BindInfoCache;
+import com.springwater.easybot.bridge.cache.ExpiringLruCache;
+import com.springwater.easybot.bridge.packet.GetBindInfoResultPacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BindInfoCacheTest {
+    @Test
+    public void evictsLeastRecentlyUsedAndExpired() throws Exception {
+        long[] ttl = {60_000};
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(() -> 2, () -> ttl[0]);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        Assertions.assertEquals("1", cache.get("a"));
+        cache.put("c", "3");
+        Assertions.assertNull(cache.get("b"));
+        Assertions.assertEquals("1", cache.get("a"));
+        Assertions.assertEquals(1, cache.getEvictions());
+        Assertions.assertEquals(2.0 / 3, cache.getHitRate(), 1e-9);
+
+        ttl[0] = 1;
+        cache.put("d", "4");
+        Thread.sleep(5);
+        Assertions.assertNull(cache.get("d"));
+    }
+
+    @Test
+    public void invalidatesByNotification() {
+        BindInfoCache cache = new BindInfoCache();
+        GetBindInfoResultPacket result = new GetBindInfoResultPacket();
+        result.setName("Steve");
+
+        cache.putBindInfo("Steve", result, cache.generation());
+        Assertions.assertSame(result, cache.getBindInfo("steve"));
+        cache.invalidate("STEVE");
+        Assertions.assertNull(cache.getBindInfo("Steve"));
+
+        // 查询期间收到通知, 旧结果不会写回
+        long generation = cache.generation();
+        cache.invalidate("Alex");
+        cache.putBindInfo("Steve", result, generation);
+        Assertions.assertNull(cache.getBindInfo("Steve"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.springwater.bridge.test;
+
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.callback.CallbackRegistry;
+import com.springwater.easybot.bridge.callback.CallbackRegistry.PendingCallback;
+import com.springwater.easybot.bridge.callback.HashedWheelTimer;
+import com.springwater.easybot.bridge.callback.RequestOptions;
+import com.springwater.easybot.bridge.codec.InboundFrame;
+import com.springwater.easybot.bridge.packet.GetBindInfoPacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+public class CallbackRegistryTest {
+    @Test
+    public void completesTimesOutAndFailsOnDisconnect() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer("test-callbackTimer", 10, TimeUnit.MILLISECONDS, 8);
+        try {
+            CallbackRegistry registry = new CallbackRegistry(timer);
+            PendingCallback first = registry.register("GET_BIND_INFO", 60_000);
+            PendingCallback second = registry.register("GET_BIND_INFO", 60_000);
+            Assertions.assertEquals("1", first.getId());
+            Assertions.assertEquals("2", second.getId());
+            Assertions.assertEquals(2, timer.getPendingTimeouts());
+
+            InboundFrame frame = InboundFrame.decode("{\"op\":5,\"callback_id\":\"1\"}");
+            Assertions.assertTrue(registry.complete("1", frame));
+            Assertions.assertFalse(registry.complete("1", frame));
+            Assertions.assertSame(frame, first.getFuture().get());
+            Assertions.assertEquals(1, timer.getPendingTimeouts());
+
+            // 超时跨越多圈时间轮
+            PendingCallback slow = registry.register("GET_BIND_INFO", 150);
+            ExecutionException timeout = Assertions.assertThrows(ExecutionException.class, () -> slow.getFuture().get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(TimeoutException.class, timeout.getCause());
+            Assertions.assertEquals(1, registry.getTimedOut());
+
+            Assertions.assertEquals(1, registry.getInFlight());
+            Assertions.assertEquals(1, registry.failAll(new CancellationException("连接已关闭")));
+            Assertions.assertTrue(second.getFuture().isCompletedExceptionally());
+            Assertions.assertEquals(0, registry.getInFlight());
+            Assertions.assertEquals(0, registry.getOldestAgeMillis());
+            Assertions.assertEquals(0, timer.getPendingTimeouts());
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Test
+    public void resolvesTimeoutsPerOperation() {
+        Assertions.assertEquals(15_000, RequestOptions.DEFAULT.remainingMillis("INSTALLED_PLUGIN"));
+        Assertions.assertEquals(ClientProfile.getCallbackTimeoutMillis(), RequestOptions.DEFAULT.remainingMillis("UNKNOWN"));
+        Assertions.assertEquals(200, RequestOptions.timeout(200, TimeUnit.MILLISECONDS).remainingMillis("INSTALLED_PLUGIN"));
+        Assertions.assertEquals(0, RequestOptions.deadline(System.nanoTime() - 1).remainingMillis("GET_BIND_INFO"));
+
+        HashedWheelTimer timer = new HashedWheelTimer("test-callbackTimer", 10, TimeUnit.MILLISECONDS, 8);
+        try {
+            CallbackRegistry registry = new CallbackRegistry(timer);
+            PendingCallback expired = registry.register("GET_BIND_INFO", 0);
+            Assertions.assertTrue(expired.getFuture().isCompletedExceptionally());
+            Assertions.assertEquals(0, registry.getInFlight());
+            Assertions.assertEquals(1, registry.getTimedOut("GET_BIND_INFO"));
+            Assertions.assertEquals(0, registry.getTimedOut("RPC_CALL"));
+        } finally {
+            timer.stop();
+        }
+
+        GetBindInfoPacket packet = new GetBindInfoPacket();
+        packet.setDeadlineMillis(1500L);
+        Assertions.assertEquals(1500, BridgeClient.getGson().toJsonTree(packet).getAsJsonObject().get("deadline_ms").getAsLong());
+        Assertions.assertFalse(BridgeClient.getGson().toJsonTree(new GetBindInfoPacket()).getAsJsonObject().has("deadline_ms"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.springwater.bridge.test;
+
+import com.springwater.easybot.bridge.api.BridgeEventHandler;
+import com.springwater.easybot.bridge.api.IBridgeExtension;
+import com.springwater.easybot.bridge.api.IBridgeListener;
+import com.springwater.easybot.bridge.api.events.raw.RawPacketEvent;
+import com.springwater.easybot.bridge.extension.BridgeEventManager;
+import com.springwater.easybot.bridge.extension.EventInvoker;
+import com.springwater.easybot.bridge.extension.HandlerInvokers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+@Tag("manual")
+public class EventDispatchBenchmark implements IBridgeListener, IBridgeExtension {
+    private static final int WARMUP = 2_000_000;
+    private static final int ROUNDS = 20_000_000;
+
+    private long count;
+
+    @BridgeEventHandler
+    public void onRawPacket(RawPacketEvent event) {
+        count++;
+    }
+
+    @Test
+    public void compareReflectionAndInvoker() throws Throwable {
+        Method method = EventDispatchBenchmark.class.getMethod("onRawPacket", RawPacketEvent.class);
+        EventInvoker invoker = HandlerInvokers.forEvent(method);
+        RawPacketEvent event = new RawPacketEvent(null);
+        for (int i = 0; i < WARMUP; i++) {
+            method.invoke(this, event);
+            invoker.invoke(this, event);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            method.invoke(this, event);
+        }
+        long reflective = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            invoker.invoke(this, event);
+        }
+        long generated = System.nanoTime() - start;
+
+        BridgeEventManager manager = new BridgeEventManager();
+        manager.register(this, this);
+        for (int i = 0; i < WARMUP; i++) {
+            manager.push(event);
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            manager.push(event);
+        }
+        long push = System.nanoTime() - start;
+        manager.shutdown();
+
+        System.out.printf("Method.invoke: %.2f ns/次, 生成的调用器: %.2f ns/次, push 单个处理器: %.2f ns/次%n",
+                (double) reflective / ROUNDS, (double) generated / ROUNDS, (double) push / ROUNDS);
+        Assertions.assertEquals(2L * (WARMUP + ROUNDS) + WARMUP + ROUNDS, count);
+    }
+
+    @Override
+    public String getIdentifier() {
+        return "event_dispatch_benchmark";
+    }
+
+    @Override
+    public String getName() {
+        return "EventDispatchBenchmark";
+    }
+
+    @Override
+    public String getDescription() {
+        return "";
+    }
+
+    @Override
+    public String getAuthor() {
+        return "";
+    }
+
+    @Override
+    public String getVersion() {
+        return "1.0.0";
+    }
+
+    @Override
+    public List<String> requiredPlugins() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,131 @@
+package com.springwater.bridge.test;
+
+import com.springwater.easybot.bridge.api.BridgeEventHandler;
+import com.springwater.easybot.bridge.api.BridgeHandlerPriority;
+import com.springwater.easybot.bridge.api.IBridgeExtension;
+import com.springwater.easybot.bridge.api.IBridgeListener;
+import com.springwater.easybot.bridge.api.events.BridgeEvent;
+import com.springwater.easybot.bridge.api.events.raw.BridgeSendPacketEvent;
+import com.springwater.easybot.bridge.api.events.raw.RawExecPacketEvent;
+import com.springwater.easybot.bridge.api.events.raw.RawPacketEvent;
+import com.springwater.easybot.bridge.extension.BridgeEventManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class EventSubscriptionTest implements IBridgeListener, IBridgeExtension {
+    @BridgeEventHandler
+    public void onRawPacket(RawPacketEvent event) {
+    }
+
+    @Test
+    public void tracksSubscribersOnRegisterAndUnregister() {
+        BridgeEventManager manager = new BridgeEventManager();
+        Assertions.assertFalse(manager.hasSubscribers(RawPacketEvent.class));
+
+        manager.register(this, this);
+        Assertions.assertTrue(manager.hasSubscribers(RawPacketEvent.class));
+        Assertions.assertFalse(manager.hasSubscribers(RawExecPacketEvent.class));
+        Assertions.assertFalse(manager.hasSubscribers(BridgeSendPacketEvent.class));
+
+        manager.unregister(this);
+        Assertions.assertFalse(manager.hasSubscribers(RawPacketEvent.class));
+        manager.shutdown();
+    }
+
+    public static class OrderedListener implements IBridgeListener {
+        private final List<String> calls = new ArrayList<>();
+
+        @BridgeEventHandler(priority = BridgeHandlerPriority.LOWEST)
+        public void any(BridgeEvent event) {
+            calls.add("any");
+        }
+
+        @BridgeEventHandler(priority = BridgeHandlerPriority.HIGH)
+        public void raw(RawPacketEvent event) {
+            calls.add("raw");
+        }
+    }
+
+    private static class HiddenListener implements IBridgeListener {
+        private int calls;
+
+        @BridgeEventHandler(priority = BridgeHandlerPriority.HIGHEST)
+        public void fail(RawPacketEvent event) {
+            throw new IllegalStateException("boom");
+        }
+
+        @BridgeEventHandler
+        public void count(RawPacketEvent event) {
+            calls++;
+        }
+    }
+
+    @Test
+    public void invokesNonPublicListenersAndSurvivesExceptions() {
+        BridgeEventManager manager = new BridgeEventManager();
+        HiddenListener hidden = new HiddenListener();
+        manager.register(this, hidden);
+        manager.push(new RawPacketEvent(null));
+        manager.push(new RawPacketEvent(null));
+        Assertions.assertEquals(2, hidden.calls);
+        manager.shutdown();
+    }
+
+    @Test
+    public void dispatchesThroughMergedPlan() {
+        BridgeEventManager manager = new BridgeEventManager();
+        OrderedListener ordered = new OrderedListener();
+        manager.register(this, ordered);
+        manager.push(new RawPacketEvent(null));
+        manager.push(new RawExecPacketEvent(null));
+        Assertions.assertEquals(Arrays.asList("raw", "any", "any"), ordered.calls);
+
+        // 注册后旧的处理器链失效
+        ordered.calls.clear();
+        manager.register(this, this);
+        Assertions.assertTrue(manager.hasSubscribers(RawPacketEvent.class));
+        manager.push(new RawPacketEvent(null));
+        Assertions.assertEquals(Arrays.asList("raw", "any"), ordered.calls);
+
+        ordered.calls.clear();
+        manager.unregister(ordered);
+        manager.push(new RawPacketEvent(null));
+        Assertions.assertTrue(ordered.calls.isEmpty());
+        manager.shutdown();
+    }
+
+    @Override
+    public String getIdentifier() {
+        return "event_subscription_test";
+    }
+
+    @Override
+    public String getName() {
+        return "EventSubscriptionTest";
+    }
+
+    @Override
+    public String getDescription() {
+        return "";
+    }
+
+    @Override
+    public String getAuthor() {
+        return "";
+    }
+
+    @Override
+    public String getVersion() {
+        return "1.0.0";
+    }
+
+    @Override
+    public List<String> requiredPlugins() {
+        return Collections.emptyList();
+    }
+}
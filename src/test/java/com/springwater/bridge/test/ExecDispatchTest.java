@@ -0,0 +1,155 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.api.BridgeEventHandler;
+import com.springwater.easybot.bridge.api.IBridgeExtension;
+import com.springwater.easybot.bridge.api.IBridgeListener;
+import com.springwater.easybot.bridge.api.events.raw.BridgeSendPacketEvent;
+import com.springwater.easybot.bridge.api.events.raw.RawExecPacketEvent;
+import com.springwater.easybot.bridge.api.exec.ExecContext;
+import com.springwater.easybot.bridge.api.exec.ExecPolicy;
+import com.springwater.easybot.bridge.extension.BridgeExecRegistry;
+import com.springwater.easybot.bridge.packet.PacketWithCallBackId;
+import com.springwater.easybot.bridge.packet.RunCommandPacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class ExecDispatchTest implements IBridgeListener, IBridgeExtension {
+    private final BlockingQueue<JsonObject> callBacks = new LinkedBlockingQueue<>();
+    private volatile boolean skip;
+
+    @BridgeEventHandler
+    public void onSend(BridgeSendPacketEvent event) {
+        if (event.isHasCallbackId()) {
+            callBacks.add(JsonParser.parseString(event.getEncoded()).getAsJsonObject());
+        }
+    }
+
+    @BridgeEventHandler
+    public void onExec(RawExecPacketEvent event) {
+        event.setSkipInternalProcessing(skip);
+    }
+
+    @Test
+    public void overridesAndUnregisters() {
+        BridgeExecRegistry registry = new BridgeExecRegistry();
+        Assertions.assertNull(registry.lookup("TEST_OP"));
+        registry.register("TEST_OP", PacketWithCallBackId.class, ExecPolicy.INLINE, context -> context.getCallBack().addProperty("v", 1));
+        BridgeExecRegistry.ExecRegistration<?> first = registry.lookup("TEST_OP");
+        Assertions.assertEquals(ExecPolicy.INLINE, first.getPolicy());
+        Assertions.assertFalse(first.needsBody());
+
+        registry.register("TEST_OP", RunCommandPacket.class, ExecPolicy.WORKER, context -> {
+        });
+        BridgeExecRegistry.ExecRegistration<?> second = registry.lookup("TEST_OP");
+        Assertions.assertEquals(ExecPolicy.WORKER, second.getPolicy());
+        Assertions.assertTrue(second.needsBody());
+        Assertions.assertEquals("TEST_OP", second.getOperation());
+
+        // 参数不完整时保留原有的注册
+        registry.register("TEST_OP", RunCommandPacket.class, null, context -> {
+        });
+        Assertions.assertSame(second, registry.lookup("TEST_OP"));
+
+        registry.unregister("TEST_OP");
+        Assertions.assertNull(registry.lookup("TEST_OP"));
+        Assertions.assertNull(registry.lookup(null));
+    }
+
+    @Test
+    public void dispatchesByPolicy() throws Exception {
+        ExecutorService mainThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "Server-Main"));
+        BridgeClient client = new BridgeClient("ws://127.0.0.1:1/bridge", new MockBridgeBehavior() {
+            @Override
+            public void runOnMainThread(Runnable task) {
+                mainThread.execute(task);
+            }
+        });
+        BridgeExecRegistry registry = BridgeClient.getExecRegistry();
+        registry.register("TEST_INLINE", PacketWithCallBackId.class, ExecPolicy.INLINE, this::recordThread);
+        registry.register("TEST_WORKER", PacketWithCallBackId.class, ExecPolicy.WORKER, this::recordThread);
+        registry.register("TEST_MAIN", RunCommandPacket.class, ExecPolicy.MAIN_THREAD, context -> {
+            recordThread(context);
+            context.getCallBack().addProperty("command", context.getPacket().getCommand());
+        });
+        BridgeClient.getEventManager().register(this, this);
+        try {
+            String caller = Thread.currentThread().getName();
+            Assertions.assertEquals(caller, exec(client, "1", "TEST_INLINE").get("thread").getAsString());
+            Assertions.assertEquals("BridgeClient-RPC-Executor", exec(client, "2", "TEST_WORKER").get("thread").getAsString());
+            JsonObject main = exec(client, "3", "TEST_MAIN");
+            Assertions.assertEquals("Server-Main", main.get("thread").getAsString());
+            Assertions.assertEquals("list", main.get("command").getAsString());
+            JsonObject unknown = exec(client, "4", "TEST_UNKNOWN");
+            Assertions.assertEquals("4", unknown.get("callback_id").getAsString());
+            Assertions.assertFalse(unknown.has("thread"));
+
+            // 拦截者跳过内部处理时只替 INLINE 和未知操作发送回调
+            skip = true;
+            Assertions.assertFalse(exec(client, "5", "TEST_INLINE").has("thread"));
+            Assertions.assertEquals("6", exec(client, "6", "TEST_UNKNOWN").get("callback_id").getAsString());
+            send(client, "7", "TEST_WORKER");
+            send(client, "8", "TEST_MAIN");
+            Assertions.assertNull(callBacks.poll(300, TimeUnit.MILLISECONDS));
+        } finally {
+            BridgeClient.getEventManager().unregister(this);
+            registry.unregister("TEST_INLINE");
+            registry.unregister("TEST_WORKER");
+            registry.unregister("TEST_MAIN");
+            client.close();
+            mainThread.shutdownNow();
+        }
+    }
+
+    private void recordThread(ExecContext<?> context) {
+        context.getCallBack().addProperty("thread", Thread.currentThread().getName());
+    }
+
+    private void send(BridgeClient client, String callBackId, String operation) {
+        client.onWebSocketText("{\"op\":4,\"callback_id\":\"" + callBackId + "\",\"exec_op\":\"" + operation + "\",\"command\":\"list\"}");
+    }
+
+    private JsonObject exec(BridgeClient client, String callBackId, String operation) throws InterruptedException {
+        send(client, callBackId, operation);
+        JsonObject callBack = callBacks.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(callBack, operation + " 没有发送回调");
+        Assertions.assertEquals(callBackId, callBack.get("callback_id").getAsString());
+        return callBack;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return "bridge:exec";
+    }
+
+    @Override
+    public String getName() {
+        return "ExecDispatchTest";
+    }
+
+    @Override
+    public String getDescription() {
+        return "";
+    }
+
+    @Override
+    public String getAuthor() {
+        return "";
+    }
+
+    @Override
+    public String getVersion() {
+        return "1.0.0";
+    }
+
+    @Override
+    public List<String> requiredPlugins() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,88 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.api.IBridgeExtension;
+import com.springwater.easybot.bridge.api.rpc.BridgeRpc;
+import com.springwater.easybot.bridge.api.rpc.IRpcListener;
+import com.springwater.easybot.bridge.api.rpc.RpcContext;
+import com.springwater.easybot.bridge.extension.BridgeEventManager;
+import com.springwater.easybot.bridge.extension.BridgeRpcManager;
+import com.springwater.easybot.bridge.extension.ExtensionCatalog;
+import com.springwater.easybot.bridge.packet.GetExtensionsResultPacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class ExtensionCatalogTest implements IBridgeExtension, IRpcListener {
+    @BridgeRpc(method = "get_date", description = "获取服务器时间", displayName = "获取时间")
+    public void getDate(RpcContext context) {
+    }
+
+    @Test
+    public void rebuildsOnlyAfterRegistrationChanges() {
+        BridgeEventManager eventManager = new BridgeEventManager();
+        BridgeRpcManager rpcManager = new BridgeRpcManager();
+        ExtensionCatalog catalog = new ExtensionCatalog(BridgeClient.getGson(), eventManager, rpcManager);
+        try {
+            rpcManager.registerRpc(this, this);
+            GetExtensionsResultPacket first = catalog.get(null);
+            JsonObject extension = JsonParser.parseString(first.getExtensions().getJson()).getAsJsonObject().getAsJsonObject("bridge:catalog");
+            JsonObject method = extension.getAsJsonObject("rpc").getAsJsonObject("get_date");
+            Assertions.assertEquals("获取时间", method.get("displayName").getAsString());
+            Assertions.assertEquals(ExtensionCatalogTest.class.getName() + ".getDate", method.get("fullMethodClassName").getAsString());
+
+            Assertions.assertSame(first.getExtensions(), catalog.get(null).getExtensions());
+            GetExtensionsResultPacket unchanged = catalog.get(first.getVersion());
+            Assertions.assertTrue(unchanged.isUnchanged());
+            Assertions.assertNull(unchanged.getExtensions());
+            Assertions.assertEquals(1, catalog.getRebuilds());
+
+            // 重新注册相同的内容时重建但版本不变
+            rpcManager.unregisterRpc(this);
+            rpcManager.registerRpc(this, this);
+            Assertions.assertEquals(first.getVersion(), catalog.getVersion());
+            Assertions.assertEquals(2, catalog.getRebuilds());
+
+            rpcManager.unregisterRpc(this);
+            GetExtensionsResultPacket empty = catalog.get(first.getVersion());
+            Assertions.assertEquals(first.getVersion() + 1, empty.getVersion());
+            Assertions.assertEquals("{}", empty.getExtensions().getJson());
+        } finally {
+            eventManager.shutdown();
+        }
+    }
+
+    @Override
+    public String getIdentifier() {
+        return "bridge:catalog";
+    }
+
+    @Override
+    public String getName() {
+        return "目录测试扩展";
+    }
+
+    @Override
+    public String getDescription() {
+        return "";
+    }
+
+    @Override
+    public String getAuthor() {
+        return "MiuxuE";
+    }
+
+    @Override
+    public String getVersion() {
+        return "1.0.0";
+    }
+
+    @Override
+    public List<String> requiredPlugins() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,77 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.codec.InboundFrame;
+import com.springwater.easybot.bridge.packet.Packet;
+import com.springwater.easybot.bridge.packet.PacketWithCallBackId;
+import com.springwater.easybot.bridge.packet.RunCommandPacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("manual")
+public class FrameDecodeBenchmark {
+    private static final String FRAME = "{\"op\":4,\"callback_id\":\"4f1c2b8e-7d0a-4c55-9d35-1f0e8a3b6c21\",\"exec_op\":\"RUN_COMMAND\"," +
+            "\"player_name\":\"MiuxuE\",\"command\":\"say hello from easybot\",\"enable_papi\":true}";
+    private static final int WARMUP = 200_000;
+    private static final int ROUNDS = 1_000_000;
+
+    private final Gson gson = BridgeClient.getGson();
+
+    @Test
+    public void compareDecodePaths() {
+        for (int i = 0; i < WARMUP; i++) {
+            legacy();
+            singlePass();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            legacy();
+        }
+        long legacyNanos = System.nanoTime() - start;
+
+        long framesBefore = InboundFrame.getDecodedFrames();
+        long parsesBefore = InboundFrame.getTextParses();
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            singlePass();
+        }
+        long singlePassNanos = System.nanoTime() - start;
+        long frames = InboundFrame.getDecodedFrames() - framesBefore;
+        long parses = InboundFrame.getTextParses() - parsesBefore;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            routeOnly();
+        }
+        long routeOnlyNanos = System.nanoTime() - start;
+
+        System.out.println("旧流程 (每帧解析 4 次): " + legacyNanos / ROUNDS + " ns/帧");
+        System.out.println("单次解析: " + singlePassNanos / ROUNDS + " ns/帧, 每帧解析次数: " + (double) parses / frames);
+        System.out.println("仅嗅探信封: " + routeOnlyNanos / ROUNDS + " ns/帧");
+        Assertions.assertEquals(frames, parses);
+    }
+
+    private Object legacy() {
+        Packet packet = gson.fromJson(FRAME, Packet.class);
+        JsonObject body = gson.fromJson(FRAME, JsonObject.class);
+        PacketWithCallBackId envelope = gson.fromJson(FRAME, PacketWithCallBackId.class);
+        RunCommandPacket command = gson.fromJson(FRAME, RunCommandPacket.class);
+        return packet.getOpCode() == null ? body : envelope.getOperation() == null ? command : envelope;
+    }
+
+    private Object singlePass() {
+        InboundFrame frame = InboundFrame.decode(FRAME);
+        PacketWithCallBackId envelope = frame.toPacketWithCallBackId();
+        RunCommandPacket command = frame.as(gson, RunCommandPacket.class);
+        return envelope.getOperation() != null ? command : frame.getBody();
+    }
+
+    private Object routeOnly() {
+        InboundFrame frame = InboundFrame.decode(FRAME);
+        return frame.getOperation();
+    }
+}
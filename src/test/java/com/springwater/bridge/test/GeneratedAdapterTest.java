@@ -0,0 +1,97 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.OpCode;
+import com.springwater.easybot.bridge.adapter.GeneratedTypeAdapterFactory;
+import com.springwater.easybot.bridge.adapter.OpCodeAdapter;
+import com.springwater.easybot.bridge.model.PlayerInfo;
+import com.springwater.easybot.bridge.model.ServerInfo;
+import com.springwater.easybot.bridge.packet.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+public class GeneratedAdapterTest {
+    private final Gson generated = BridgeClient.getGson();
+    private final Gson reflective = new GsonBuilder().registerTypeAdapter(OpCode.class, new OpCodeAdapter()).create();
+
+    @Test
+    public void usesGeneratedAdapters() {
+        TypeAdapter<SyncMessagePacket> adapter = generated.getAdapter(SyncMessagePacket.class);
+        Assertions.assertEquals("SyncMessagePacketTypeAdapter", adapter.getClass().getSimpleName());
+        Assertions.assertTrue(GeneratedTypeAdapterFactory.ADAPTER_COUNT >= 45);
+    }
+
+    @Test
+    public void writesSameJsonAsReflection() {
+        PlayerInfoWithRaw player = new PlayerInfoWithRaw();
+        player.setName("MiuxuE");
+        player.setUuid("8667ba71-b85a-4004-af54-457a9734eed7");
+        player.setIp("127.0.0.1");
+        SyncMessagePacket sync = new SyncMessagePacket();
+        sync.setPlayer(player);
+        sync.setMessage("hello <world> & \"friends\"");
+        sync.setUseCommand(true);
+        sync.setCallBackId("");
+        assertSameJson(sync);
+
+        SyncEnterExitMessagePacket enter = new SyncEnterExitMessagePacket();
+        enter.setPlayer(player);
+        enter.setEnter(true);
+        assertSameJson(enter);
+
+        DataRecordPacket record = new DataRecordPacket();
+        record.setType(RecordTypeEnum.Chat);
+        record.setData("data");
+        assertSameJson(record);
+
+        PlayerInfo info = new PlayerInfo();
+        info.setPlayerName("MiuxuE");
+        info.setBedrock(true);
+        PlayerListPacket list = new PlayerListPacket();
+        list.setList(Collections.singletonList(info));
+        assertSameJson(list);
+
+        ServerInfo serverInfo = new ServerInfo();
+        serverInfo.setServerName("junit");
+        serverInfo.setPapiSupported(true);
+        assertSameJson(serverInfo);
+
+        assertSameJson(new IdentifyPacket("token"));
+        assertSameJson(new HeartbeatPacket());
+    }
+
+    @Test
+    public void readsSameValuesAsReflection() {
+        String json = "{\"op\":4,\"callback_id\":\"1\",\"exec_op\":\"RUN_COMMAND\",\"player_name\":\"MiuxuE\"," +
+                "\"command\":\"list\",\"enable_papi\":\"true\",\"unknown\":{\"nested\":[1,2,3]}}";
+        RunCommandPacket fast = generated.fromJson(json, RunCommandPacket.class);
+        RunCommandPacket slow = reflective.fromJson(json, RunCommandPacket.class);
+        Assertions.assertEquals(slow.getOpCode(), fast.getOpCode());
+        Assertions.assertEquals(slow.getCallBackId(), fast.getCallBackId());
+        Assertions.assertEquals(slow.getOperation(), fast.getOperation());
+        Assertions.assertEquals(slow.getPlayerName(), fast.getPlayerName());
+        Assertions.assertEquals(slow.getCommand(), fast.getCommand());
+        Assertions.assertEquals(slow.isEnablePapi(), fast.isEnablePapi());
+
+        String rpc = "{\"op\":4,\"exec_op\":\"RPC_CALL\",\"identifier\":\"a\",\"method\":\"b\",\"body\":{\"x\":1}}";
+        RpcCallPacket rpcPacket = generated.fromJson(rpc, RpcCallPacket.class);
+        Assertions.assertEquals(1, rpcPacket.getBody().get("x").getAsInt());
+
+        String plugins = "{\"plugins\":{\"a\":{\"enabled\":true,\"manifest\":{\"name\":\"A\",\"tags\":[\"x\"]}}}}";
+        GetInstalledPluginResultPacket result = generated.fromJson(plugins, GetInstalledPluginResultPacket.class);
+        Assertions.assertTrue(result.getPlugins().get("a").isEnabled());
+        Assertions.assertEquals("x", result.getPlugins().get("a").getManifest().getTags().get(0));
+    }
+
+    private void assertSameJson(Object packet) {
+        Assertions.assertEquals(reflective.toJsonTree(packet), generated.toJsonTree(packet));
+        JsonObject parsed = reflective.fromJson(generated.toJson(packet), JsonObject.class);
+        Assertions.assertEquals(reflective.toJsonTree(packet), parsed);
+    }
+}
@@ -0,0 +1,73 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.Gson;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.OpCode;
+import com.springwater.easybot.bridge.codec.InboundFrame;
+import com.springwater.easybot.bridge.packet.PacketWithCallBackId;
+import com.springwater.easybot.bridge.packet.RunCommandPacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class InboundFrameTest {
+    private final Gson gson = BridgeClient.getGson();
+
+    @Test
+    public void sniffsEnvelope() {
+        // 路由字段出现在嵌套对象和数组之后, 嵌套结构中的同名字段不影响结果
+        InboundFrame frame = InboundFrame.decode("{\"extra\":[{\"op\":1},[2,{\"exec_op\":\"X\"}]],\"data\":{\"callback_id\":\"no\"},"
+                + "\"op\":4,\"callback_id\":\"a\\\"b\\u0063\",\"exec_op\":\"RUN_COMMAND\"}");
+        Assertions.assertNotNull(frame);
+        Assertions.assertEquals(OpCode.Packet, frame.getOpCode());
+        Assertions.assertEquals("a\"bc", frame.getCallBackId());
+        Assertions.assertEquals("RUN_COMMAND", frame.getOperation());
+        Assertions.assertFalse(frame.isBodyMaterialized());
+
+        InboundFrame heartbeat = InboundFrame.decode("{\"op\":2}");
+        Assertions.assertNotNull(heartbeat);
+        Assertions.assertEquals(OpCode.HeartBeat, heartbeat.getOpCode());
+        Assertions.assertNull(heartbeat.getCallBackId());
+        Assertions.assertNull(heartbeat.getOperation());
+
+        InboundFrame odd = InboundFrame.decode("{\"op\":{\"value\":4},\"callback_id\":null,\"exec_op\":[\"RUN_COMMAND\"]}");
+        Assertions.assertNotNull(odd);
+        Assertions.assertNull(odd.getOpCode());
+        Assertions.assertNull(odd.getCallBackId());
+        Assertions.assertNull(odd.getOperation());
+    }
+
+    @Test
+    public void rejectsMalformedFrames() {
+        Assertions.assertNull(InboundFrame.decode("[1,2]"));
+        Assertions.assertNull(InboundFrame.decode("\"op\""));
+        Assertions.assertNull(InboundFrame.decode("{\"op\":4,"));
+        Assertions.assertNull(InboundFrame.decode("{\"op\":\"four\"}"));
+        Assertions.assertNull(InboundFrame.decode(""));
+    }
+
+    @Test
+    public void looksUpOpCodes() {
+        for (OpCode opCode : OpCode.values()) {
+            Assertions.assertEquals(opCode, OpCode.fromValue(opCode.getValue()));
+        }
+        Assertions.assertNull(OpCode.fromValue(-1));
+        Assertions.assertNull(OpCode.fromValue(OpCode.values().length + 10));
+        Assertions.assertEquals(OpCode.CallBack, InboundFrame.decode("{\"op\":\"5\"}").getOpCode());
+        Assertions.assertNull(InboundFrame.decode("{\"op\":99}").getOpCode());
+    }
+
+    @Test
+    public void mapsTextFramesOnce() {
+        InboundFrame frame = InboundFrame.decode("{\"op\":4,\"callback_id\":\"7\",\"exec_op\":\"RUN_COMMAND\",\"command\":\"list\"}");
+        Assertions.assertNotNull(frame);
+        long before = InboundFrame.getTextParses();
+        RunCommandPacket packet = frame.as(gson, RunCommandPacket.class);
+        Assertions.assertSame(packet, frame.as(gson, RunCommandPacket.class));
+        Assertions.assertEquals(before + 1, InboundFrame.getTextParses());
+        Assertions.assertFalse(frame.isBodyMaterialized());
+
+        Assertions.assertEquals("7", frame.as(gson, PacketWithCallBackId.class).getCallBackId());
+        Assertions.assertTrue(frame.isBodyMaterialized());
+        Assertions.assertEquals(before + 2, InboundFrame.getTextParses());
+    }
+}
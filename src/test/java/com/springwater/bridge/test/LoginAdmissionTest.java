@@ -0,0 +1,80 @@
+package com.springwater.bridge.test;
+
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.admission.CircuitBreaker;
+import com.springwater.easybot.bridge.admission.LoginAdmission;
+import com.springwater.easybot.bridge.admission.LoginFailurePolicy;
+import com.springwater.easybot.bridge.callback.RequestOptions;
+import com.springwater.easybot.bridge.packet.PlayerLoginResultPacket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoginAdmissionTest {
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile boolean hostDown;
+
+    @AfterEach
+    public void restore() {
+        ClientProfile.setLoginCacheTtlMillis(0);
+        ClientProfile.setLoginNegativeCacheTtlMillis(0);
+        ClientProfile.setLoginFailurePolicy(LoginFailurePolicy.THROW);
+        ClientProfile.setLoginBreakerThreshold(5);
+    }
+
+    @Test
+    public void cachesDecisionsPerUuid() throws Exception {
+        ClientProfile.setLoginCacheTtlMillis(60_000);
+        LoginAdmission admission = new LoginAdmission(this::load);
+        admission.admit("Steve", "uuid-1", RequestOptions.DEFAULT).get();
+        Assertions.assertFalse(admission.admit("Steve", "uuid-1", RequestOptions.DEFAULT).get().getKick());
+        Assertions.assertEquals(1, loads.get());
+
+        // 拒绝结果未开启缓存
+        Assertions.assertTrue(admission.admit("Banned", "uuid-2", RequestOptions.DEFAULT).get().getKick());
+        admission.admit("Banned", "uuid-2", RequestOptions.DEFAULT).get();
+        Assertions.assertEquals(3, loads.get());
+
+        admission.invalidateAll();
+        admission.admit("Steve", "uuid-1", RequestOptions.DEFAULT).get();
+        Assertions.assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void failsFastWhenHostTimesOut() throws Exception {
+        ClientProfile.setLoginBreakerThreshold(2);
+        LoginAdmission admission = new LoginAdmission(this::load);
+        hostDown = true;
+
+        ExecutionException thrown = Assertions.assertThrows(ExecutionException.class, () -> admission.admit("Steve", "uuid-1", RequestOptions.DEFAULT).get());
+        Assertions.assertInstanceOf(TimeoutException.class, thrown.getCause());
+        Assertions.assertThrows(ExecutionException.class, () -> admission.admit("Steve", "uuid-1", RequestOptions.DEFAULT).get());
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, admission.getBreaker().getState());
+
+        ClientProfile.setLoginFailurePolicy(LoginFailurePolicy.DENY);
+        PlayerLoginResultPacket denied = admission.admit("Alex", "uuid-3", RequestOptions.DEFAULT).get();
+        Assertions.assertTrue(denied.getKick());
+        Assertions.assertEquals(ClientProfile.getLoginFallbackKickMessage(), denied.getKickMessage());
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(1, admission.getFastFailures());
+        Assertions.assertEquals(1, admission.getBreaker().getTrips());
+    }
+
+    private CompletableFuture<PlayerLoginResultPacket> load(String playerName, String playerUuid, RequestOptions options) {
+        loads.incrementAndGet();
+        CompletableFuture<PlayerLoginResultPacket> future = new CompletableFuture<>();
+        if (hostDown) {
+            future.completeExceptionally(new TimeoutException("等待EasyBot返回结果超时!"));
+        } else {
+            PlayerLoginResultPacket packet = new PlayerLoginResultPacket();
+            packet.setKick(playerName.equals("Banned"));
+            future.complete(packet);
+        }
+        return future;
+    }
+}
@@ -0,0 +1,98 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.OpCode;
+import com.springwater.easybot.bridge.codec.OutboundCallBack;
+import com.springwater.easybot.bridge.codec.OutboundEncoder;
+import com.springwater.easybot.bridge.packet.PlayerInfoWithRaw;
+import com.springwater.easybot.bridge.packet.RunCommandResultPacket;
+import com.springwater.easybot.bridge.packet.SyncMessagePacket;
+import com.springwater.easybot.bridge.utils.GsonUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+@Tag("manual")
+public class OutboundEncodeBenchmark {
+    private static final int WARMUP = 200_000;
+    private static final int ROUNDS = 1_000_000;
+
+    private final Gson gson = BridgeClient.getGson();
+    private final OutboundEncoder encoder = new OutboundEncoder(gson);
+    private final SyncMessagePacket sync = new SyncMessagePacket();
+    private final RunCommandResultPacket result = new RunCommandResultPacket();
+
+    public OutboundEncodeBenchmark() {
+        PlayerInfoWithRaw player = new PlayerInfoWithRaw();
+        player.setName("MiuxuE");
+        player.setUuid("8667ba71-b85a-4004-af54-457a9734eed7");
+        player.setIp("127.0.0.1");
+        sync.setPlayer(player);
+        sync.setMessage("say hello from easybot");
+        sync.setCallBackId("");
+        result.setSuccess(true);
+        result.setText("There are 3 of a max of 20 players online: MiuxuE, Steve, Alex");
+    }
+
+    @Test
+    public void compareEncodePaths() throws Exception {
+        Assertions.assertEquals(gson.fromJson(legacyPacket(), JsonObject.class), gson.fromJson(encodePacket(), JsonObject.class));
+        Assertions.assertEquals(gson.fromJson(legacyCallBack(), JsonObject.class), gson.fromJson(encodeCallBack(), JsonObject.class));
+
+        report("旧流程 数据包", this::legacyPacket);
+        report("编码器 数据包", this::encodePacket);
+        report("旧流程 回调", this::legacyCallBack);
+        report("编码器 回调", this::encodeCallBack);
+    }
+
+    private void report(String name, Supplier<String> task) {
+        for (int i = 0; i < WARMUP; i++) {
+            task.get();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            task.get();
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+        System.out.println(name + ": " + nanos / ROUNDS + " ns/帧, " + bytes / ROUNDS + " B/帧");
+    }
+
+    private String legacyPacket() {
+        return gson.toJson(GsonUtils.merge(gson, new JsonObject(), sync));
+    }
+
+    private String encodePacket() {
+        try {
+            return encoder.encode(sync);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String legacyCallBack() {
+        JsonObject callBack = new JsonObject();
+        callBack.addProperty("op", OpCode.CallBack.getValue());
+        callBack.addProperty("callback_id", "4f1c2b8e-7d0a-4c55-9d35-1f0e8a3b6c21");
+        callBack.addProperty("exec_op", "RUN_COMMAND");
+        return gson.toJson(GsonUtils.merge(gson, callBack, result));
+    }
+
+    private String encodeCallBack() {
+        OutboundCallBack callBack = new OutboundCallBack("4f1c2b8e-7d0a-4c55-9d35-1f0e8a3b6c21", "RUN_COMMAND");
+        callBack.setResult(result);
+        try {
+            return encoder.encode(callBack);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
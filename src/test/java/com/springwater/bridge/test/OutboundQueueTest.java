@@ -0,0 +1,77 @@
+package com.springwater.bridge.test;
+
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.transport.OutboundQueue;
+import com.springwater.easybot.bridge.transport.OverflowPolicy;
+import com.springwater.easybot.bridge.transport.SendLane;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+public class OutboundQueueTest {
+    private final List<String> written = new ArrayList<>();
+    private final List<WriteCallback> callbacks = new ArrayList<>();
+    private final RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+        if (method.getName().equals("sendString") && args.length == 2) {
+            written.add((String) args[0]);
+            callbacks.add((WriteCallback) args[1]);
+        }
+        return null;
+    });
+
+    @Test
+    public void writesHigherPriorityLanesFirst() {
+        OutboundQueue queue = new OutboundQueue(remote);
+        CompletableFuture<Void> first = queue.enqueue(SendLane.SYNC, "sync-1");
+        queue.enqueue(SendLane.SYNC, "sync-2");
+        queue.enqueue(SendLane.REQUEST, "login");
+        queue.enqueue(SendLane.CONTROL, "heartbeat");
+        Assertions.assertEquals(1, written.size());
+        Assertions.assertFalse(first.isDone());
+
+        completeAll();
+        Assertions.assertTrue(first.isDone() && !first.isCompletedExceptionally());
+        Assertions.assertEquals("sync-1,heartbeat,login,sync-2", String.join(",", written));
+    }
+
+    @Test
+    public void appliesOverflowPolicyPerLane() {
+        int maxFrames = ClientProfile.getSendQueueMaxFrames();
+        OverflowPolicy syncPolicy = ClientProfile.getSyncOverflowPolicy();
+        try {
+            ClientProfile.setSendQueueMaxFrames(1);
+            ClientProfile.setSyncOverflowPolicy(OverflowPolicy.DROP_OLDEST);
+            OutboundQueue queue = new OutboundQueue(remote);
+            queue.enqueue(SendLane.SYNC, "in-flight");
+            CompletableFuture<Void> oldest = queue.enqueue(SendLane.SYNC, "oldest");
+            CompletableFuture<Void> newest = queue.enqueue(SendLane.SYNC, "newest");
+            CompletableFuture<Void> request = queue.enqueue(SendLane.REQUEST, "request");
+            CompletableFuture<Void> rejected = queue.enqueue(SendLane.REQUEST, "rejected");
+            Assertions.assertTrue(oldest.isCompletedExceptionally());
+            Assertions.assertTrue(rejected.isCompletedExceptionally());
+            Assertions.assertEquals(1, queue.getDroppedFrames(SendLane.SYNC));
+            Assertions.assertEquals(1, queue.getDroppedFrames(SendLane.REQUEST));
+
+            queue.close(new CancellationException("closed"));
+            Assertions.assertTrue(newest.isCompletedExceptionally());
+            Assertions.assertTrue(request.isCompletedExceptionally());
+            Assertions.assertTrue(queue.enqueue(SendLane.CONTROL, "late").isCompletedExceptionally());
+        } finally {
+            ClientProfile.setSendQueueMaxFrames(maxFrames);
+            ClientProfile.setSyncOverflowPolicy(syncPolicy);
+        }
+    }
+
+    private void completeAll() {
+        for (int i = 0; i < callbacks.size(); i++) {
+            callbacks.get(i).writeSuccess();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.JsonObject;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.codec.OutboundEncoder;
+import com.springwater.easybot.bridge.transport.OutboundQueue;
+import com.springwater.easybot.bridge.transport.PacketBatcher;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class PacketBatcherTest {
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private final RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{RemoteEndpoint.class}, (proxy, method, args) -> {
+        if (method.getName().equals("sendString") && args.length == 2) {
+            written.add((String) args[0]);
+            ((WriteCallback) args[1]).writeSuccess();
+        }
+        return null;
+    });
+
+    @Test
+    public void flushesWhenFullOrAfterLinger() throws Exception {
+        int maxPackets = ClientProfile.getBatchMaxPackets();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            ClientProfile.setBatchMaxPackets(3);
+            PacketBatcher batcher = new PacketBatcher(new OutboundQueue(remote), new OutboundEncoder(BridgeClient.getGson()), scheduler);
+            batcher.add("{\"exec_op\":\"SYNC_MESSAGE\",\"message\":\"a\"}");
+            batcher.add("{\"exec_op\":\"SYNC_MESSAGE\",\"message\":\"b\"}");
+            CompletableFuture<Void> last = batcher.add("{\"exec_op\":\"DATA_RECORD\"}");
+            last.get(1, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(1, written.size());
+            JsonObject batch = BridgeClient.getGson().fromJson(written.get(0), JsonObject.class);
+            Assertions.assertEquals(PacketBatcher.OPERATION, batch.get("exec_op").getAsString());
+            Assertions.assertEquals(3, batch.getAsJsonArray("packets").size());
+            Assertions.assertEquals("b", batch.getAsJsonArray("packets").get(1).getAsJsonObject().get("message").getAsString());
+
+            batcher.add("{\"exec_op\":\"REPORT_PLAYER\"}").get(1, TimeUnit.SECONDS);
+            Assertions.assertEquals("{\"exec_op\":\"REPORT_PLAYER\"}", written.get(1));
+            Assertions.assertEquals(1, batcher.getBatches());
+            Assertions.assertEquals(3, batcher.getBatchedPackets());
+        } finally {
+            ClientProfile.setBatchMaxPackets(maxPackets);
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.springwater.bridge.test;
+
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.api.exec.ExecContext;
+import com.springwater.easybot.bridge.api.exec.IExecHandler;
+import com.springwater.easybot.bridge.cache.PlaceholderCache;
+import com.springwater.easybot.bridge.codec.OutboundCallBack;
+import com.springwater.easybot.bridge.model.PlaceholderQuery;
+import com.springwater.easybot.bridge.packet.PlaceholderApiBatchQueryPacket;
+import com.springwater.easybot.bridge.packet.PlaceholderApiBatchQueryResultPacket;
+import com.springwater.easybot.bridge.packet.PlaceholderApiQueryResultPacket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PlaceholderCacheTest {
+    private final AtomicInteger expansions = new AtomicInteger();
+
+    @AfterEach
+    public void restore() {
+        ClientProfile.removePapiCacheRule("server_*");
+        ClientProfile.removePapiCacheRule("server_time_*");
+        ClientProfile.removePapiCacheRule("player_name");
+    }
+
+    @Test
+    public void resolvesTtlPerPlaceholder() {
+        ClientProfile.setPapiCacheTtl("server_*", 5000);
+        ClientProfile.setPapiNonCacheable("%server_time_*%");
+        ClientProfile.setPapiCacheTtl("player_name", 60_000);
+        PlaceholderCache cache = new PlaceholderCache();
+        Assertions.assertEquals(5000, cache.getTtlMillis("在线: %server_online%"));
+        Assertions.assertEquals(0, cache.getTtlMillis("%server_online% %server_time_hh%"));
+        Assertions.assertEquals(5000, cache.getTtlMillis("%PLAYER_NAME% %server_tps%"));
+        Assertions.assertEquals(0, cache.getTtlMillis("%vault_eco_balance%"));
+    }
+
+    @Test
+    public void expandsOncePerKey() throws Exception {
+        ClientProfile.setPapiCacheTtl("server_*", 60_000);
+        PlaceholderCache cache = new PlaceholderCache();
+        Assertions.assertEquals("1", cache.query("Steve", "%server_online%", this::expand));
+        Assertions.assertEquals("1", cache.query("Steve", "%server_online%", this::expand));
+        Assertions.assertEquals("2", cache.query("Alex", "%server_online%", this::expand));
+        Assertions.assertEquals("3", cache.query("Steve", "%player_name%", this::expand));
+        Assertions.assertEquals("4", cache.query("Steve", "%player_name%", this::expand));
+        Assertions.assertEquals(2, cache.getBypassed());
+
+        // 并发未命中只展开一次
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = pool.submit(() -> cache.query("Steve", "%server_tps%", () -> {
+                entered.countDown();
+                release.await();
+                return expand();
+            }));
+            entered.await();
+            Future<String> follower = pool.submit(() -> cache.query("Steve", "%server_tps%", this::expand));
+            while (cache.getCoalesced() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            Assertions.assertEquals("5", leader.get());
+            Assertions.assertEquals("5", follower.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void boundsWaitForLeader() throws Exception {
+        ClientProfile.setPapiCacheTtl("server_*", 60_000);
+        long timeout = ClientProfile.getCallbackTimeoutMillis();
+        PlaceholderCache cache = new PlaceholderCache();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            ClientProfile.setCallbackTimeoutMillis(50);
+            Future<String> leader = pool.submit(() -> cache.query("Steve", "%server_tps%", () -> {
+                entered.countDown();
+                release.await();
+                return expand();
+            }));
+            entered.await();
+            Assertions.assertThrows(TimeoutException.class, () -> cache.query("Steve", "%server_tps%", this::expand));
+            release.countDown();
+            Assertions.assertEquals("1", leader.get());
+        } finally {
+            ClientProfile.setCallbackTimeoutMillis(timeout);
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void batchQuery() throws Exception {
+        PlaceholderApiBatchQueryPacket packet = BridgeClient.getGson().fromJson(
+                "{\"callback_id\":\"7\",\"queries\":[{\"player_name\":\"Steve\",\"query_text\":\"%server_online%\"},"
+                        + "{\"player_name\":\"Alex\",\"query_text\":\"%player_name%\"}]}", PlaceholderApiBatchQueryPacket.class);
+        List<PlaceholderQuery> queries = packet.getQueries();
+        Assertions.assertEquals(2, queries.size());
+        Assertions.assertEquals("Alex", queries.get(1).getPlayerName());
+
+        // 默认实现逐个展开, 失败项为 null
+        MockBridgeBehavior behavior = new MockBridgeBehavior() {
+            @Override
+            public String papiQuery(String playerName, String query) {
+                if (playerName.equals("Alex")) {
+                    throw new IllegalStateException("offline");
+                }
+                return query;
+            }
+        };
+        Assertions.assertEquals(Arrays.asList("%server_online%", null), behavior.papiQueryBatch(queries));
+
+        ClientProfile.setPapiCacheTtl("server_*", 60_000);
+        PlaceholderCache cache = new PlaceholderCache();
+        cache.query("Steve", "%server_online%", () -> "3");
+        List<CompletableFuture<String>> results = cache.queryBatch(queries, misses -> {
+            Assertions.assertEquals(1, misses.size());
+            return Collections.singletonList(null);
+        });
+        Assertions.assertEquals("3", results.get(0).join());
+        Assertions.assertTrue(results.get(1).isCompletedExceptionally());
+    }
+
+    @Test
+    public void batchJoinsInFlightQueries() throws Exception {
+        ClientProfile.setPapiCacheTtl("server_*", 60_000);
+        PlaceholderCache cache = new PlaceholderCache();
+        List<PlaceholderQuery> queries = BridgeClient.getGson().fromJson(
+                "{\"queries\":[{\"player_name\":\"Steve\",\"query_text\":\"%server_online%\"},"
+                        + "{\"player_name\":\"Steve\",\"query_text\":\"%server_tps%\"}]}", PlaceholderApiBatchQueryPacket.class).getQueries();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // 批量展开期间到达的单条查询等待批量结果
+            Future<List<CompletableFuture<String>>> batch = pool.submit(() -> cache.queryBatch(queries, misses -> {
+                entered.countDown();
+                release.await();
+                return Arrays.asList(expand(), expand());
+            }));
+            entered.await();
+            Future<String> single = pool.submit(() -> cache.query("Steve", "%server_tps%", this::expand));
+            while (cache.getCoalesced() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            Assertions.assertEquals("2", single.get());
+            Assertions.assertEquals("1", batch.get().get(0).get());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // 单条查询展开期间到达的批量查询也等待其结果
+        CountDownLatch leaderEntered = new CountDownLatch(1);
+        CountDownLatch leaderRelease = new CountDownLatch(1);
+        ExecutorService leaderPool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = leaderPool.submit(() -> cache.query("Alex", "%server_online%", () -> {
+                leaderEntered.countDown();
+                leaderRelease.await();
+                return expand();
+            }));
+            leaderEntered.await();
+            List<CompletableFuture<String>> joined = cache.queryBatch(Collections.singletonList(queries.get(0)), misses -> {
+                throw new AssertionError("不应再次展开");
+            });
+            Assertions.assertEquals("1", joined.get(0).get());
+            List<PlaceholderQuery> alex = BridgeClient.getGson().fromJson(
+                    "{\"queries\":[{\"player_name\":\"Alex\",\"query_text\":\"%server_online%\"}]}", PlaceholderApiBatchQueryPacket.class).getQueries();
+            List<CompletableFuture<String>> waiting = cache.queryBatch(alex, misses -> {
+                throw new AssertionError("不应再次展开");
+            });
+            Assertions.assertFalse(waiting.get(0).isDone());
+            leaderRelease.countDown();
+            Assertions.assertEquals("3", leader.get());
+            Assertions.assertEquals("3", waiting.get(0).get());
+        } finally {
+            leaderPool.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void batchHandlerBoundsWaits() throws Exception {
+        ClientProfile.setPapiCacheTtl("server_*", 60_000);
+        long timeout = ClientProfile.getCallbackTimeoutMillis();
+        BridgeClient client = new BridgeClient("ws://127.0.0.1:1/bridge", new MockBridgeBehavior());
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            // 平台代码在其他线程上展开同一个变量且迟迟不返回
+            Future<String> leader = pool.submit(() -> client.getPlaceholderCache().query("Steve", "%server_tps%", () -> {
+                entered.countDown();
+                release.await();
+                return "20";
+            }));
+            entered.await();
+            ClientProfile.setCallbackTimeoutMillis(50);
+            PlaceholderApiBatchQueryPacket packet = BridgeClient.getGson().fromJson(
+                    "{\"callback_id\":\"7\",\"queries\":[{\"player_name\":\"Steve\",\"query_text\":\"%server_tps%\"},"
+                            + "{\"player_name\":\"Steve\",\"query_text\":\"%server_online%\"}]}", PlaceholderApiBatchQueryPacket.class);
+            IExecHandler<PlaceholderApiBatchQueryPacket> handler = (IExecHandler<PlaceholderApiBatchQueryPacket>)
+                    BridgeClient.getExecRegistry().lookup("PLACEHOLDER_API_BATCH_QUERY").getHandler();
+            ExecContext<PlaceholderApiBatchQueryPacket> context = new ExecContext<>(client, packet, null, new OutboundCallBack("7", "PLACEHOLDER_API_BATCH_QUERY"));
+            handler.handle(context);
+            List<PlaceholderApiQueryResultPacket> results = ((PlaceholderApiBatchQueryResultPacket) context.getResult()).getResults();
+            Assertions.assertFalse(results.get(0).isSuccess());
+            Assertions.assertEquals("等待变量展开超时", results.get(0).getText());
+            Assertions.assertTrue(results.get(1).isSuccess());
+            Assertions.assertEquals("%server_online%", results.get(1).getText());
+            release.countDown();
+            Assertions.assertEquals("20", leader.get());
+        } finally {
+            ClientProfile.setCallbackTimeoutMillis(timeout);
+            release.countDown();
+            pool.shutdownNow();
+            client.close();
+        }
+    }
+
+    private String expand() {
+        return String.valueOf(expansions.incrementAndGet());
+    }
+}
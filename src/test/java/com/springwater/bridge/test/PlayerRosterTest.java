@@ -0,0 +1,86 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.codec.OutboundCallBack;
+import com.springwater.easybot.bridge.codec.OutboundEncoder;
+import com.springwater.easybot.bridge.model.PlayerInfo;
+import com.springwater.easybot.bridge.packet.PlayerRosterPacket;
+import com.springwater.easybot.bridge.state.PlayerRoster;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PlayerRosterTest {
+    @Test
+    public void answersFromRosterWithDeltas() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        List<Collection<String>> published = new ArrayList<>();
+        PlayerRoster roster = new PlayerRoster(BridgeClient.getGson(), () -> {
+            loads.incrementAndGet();
+            PlayerInfo steve = new PlayerInfo();
+            steve.setPlayerName("Steve");
+            steve.setSkinUrl("https://skin/steve");
+            return Collections.singletonList(steve);
+        }, published::add);
+
+        PlayerRosterPacket full = roster.snapshot(null);
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertFalse(full.isDelta());
+        Assertions.assertEquals(1, full.getList().size());
+        long base = full.getVersion();
+
+        // 加入通知不带皮肤, 沿用已有的值; 重复通知不产生变化
+        roster.join("Steve", "uuid-steve", "127.0.0.1");
+        roster.join("Steve", "uuid-steve", "127.0.0.1");
+        roster.join("Alex", "uuid-alex", null);
+        roster.leave("alex");
+        roster.join("Herobrine", null, null);
+        Assertions.assertEquals(base + 4, roster.getVersion());
+
+        PlayerRosterPacket delta = roster.snapshot(base);
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertTrue(delta.isDelta());
+        Assertions.assertEquals(Collections.singletonList("Alex"), delta.getLeft());
+        Assertions.assertEquals(2, delta.getJoined().size());
+
+        OutboundCallBack callBack = new OutboundCallBack("9", "PLAYER_LIST");
+        callBack.setResult(delta);
+        JsonObject frame = JsonParser.parseString(new OutboundEncoder(BridgeClient.getGson()).encode(callBack)).getAsJsonObject();
+        JsonArray joined = frame.getAsJsonArray("joined");
+        Assertions.assertEquals("https://skin/steve", joined.get(0).getAsJsonObject().get("skin_url").getAsString());
+        Assertions.assertEquals("uuid-steve", joined.get(0).getAsJsonObject().get("player_uuid").getAsString());
+        Assertions.assertEquals("Herobrine", joined.get(1).getAsJsonObject().get("player_name").getAsString());
+        Assertions.assertFalse(frame.has("list"));
+
+        Assertions.assertTrue(roster.snapshot(roster.getVersion()).getJoined().isEmpty());
+        // 版本过旧或来自未来时返回完整名单
+        Assertions.assertFalse(roster.snapshot(0L).isDelta());
+        Assertions.assertFalse(roster.snapshot(roster.getVersion() + 1).isDelta());
+        Assertions.assertEquals(2, published.get(published.size() - 1).size());
+    }
+
+    @Test
+    public void notifiesOnlyAfterLoad() {
+        List<Collection<String>> published = new ArrayList<>();
+        PlayerRoster roster = new PlayerRoster(BridgeClient.getGson(), () -> {
+            PlayerInfo steve = new PlayerInfo();
+            steve.setPlayerName("Steve");
+            return Collections.singletonList(steve);
+        }, published::add);
+
+        // 载入之前的名单只有新加入的玩家, 不能覆盖服务器状态
+        roster.join("Alex", "uuid-alex", null);
+        Assertions.assertTrue(published.isEmpty());
+
+        roster.snapshot(null);
+        Assertions.assertEquals(Collections.singletonList("Steve"), published.get(0));
+    }
+}
@@ -0,0 +1,59 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.codec.BinaryDecoder;
+import com.springwater.easybot.bridge.codec.OutboundCallBack;
+import com.springwater.easybot.bridge.codec.OutboundEncoder;
+import com.springwater.easybot.bridge.codec.RawJson;
+import com.springwater.easybot.bridge.packet.PlayerRosterPacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+public class RawJsonTest {
+    private static final String STEVE = "{\"player_name\":\"Steve\",\"bedrock\":false,\"ping\":42.5,\"tags\":[\"op\",null]}";
+
+    private final Gson gson = BridgeClient.getGson();
+    private final OutboundEncoder encoder = new OutboundEncoder(gson);
+
+    @Test
+    public void splicesIntoEveryWriter() throws Exception {
+        RawJson steve = new RawJson(STEVE);
+        PlayerRosterPacket packet = new PlayerRosterPacket();
+        packet.setVersion(7);
+        packet.setList(Arrays.asList(steve, steve));
+        JsonObject expected = JsonParser.parseString(STEVE).getAsJsonObject();
+
+        // 流式写入器直接拼接, toJsonTree 的写入器使用解析后的树
+        JsonObject text = JsonParser.parseString(gson.toJson(packet)).getAsJsonObject();
+        Assertions.assertEquals(expected, text.getAsJsonArray("list").get(1));
+        Assertions.assertEquals(text, gson.toJsonTree(packet));
+
+        byte[] binary = encoder.encodeBinary(packet);
+        Assertions.assertEquals(text, BinaryDecoder.decode(binary, 0, binary.length));
+        Assertions.assertEquals(STEVE, steve.getJson());
+    }
+
+    @Test
+    public void mergesIntoMaterializedCallBack() throws Exception {
+        PlayerRosterPacket packet = new PlayerRosterPacket();
+        packet.setVersion(7);
+        packet.setList(Arrays.asList(new RawJson(STEVE)));
+
+        // 回调对象已被访问时结果经过 toJsonTree 合并, 文本与二进制编码都要保留原样的片段
+        OutboundCallBack callBack = new OutboundCallBack("10", "PLAYER_LIST");
+        callBack.getObject().addProperty("trace", "listener");
+        callBack.setResult(packet);
+        JsonObject merged = JsonParser.parseString(encoder.encode(callBack)).getAsJsonObject();
+        Assertions.assertEquals(JsonParser.parseString(STEVE), merged.getAsJsonArray("list").get(0));
+        Assertions.assertEquals("listener", merged.get("trace").getAsString());
+        Assertions.assertEquals("10", merged.get("callback_id").getAsString());
+
+        byte[] binary = encoder.encodeBinary(callBack);
+        Assertions.assertEquals(merged, BinaryDecoder.decode(binary, 0, binary.length));
+    }
+}
@@ -0,0 +1,130 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.api.IBridgeExtension;
+import com.springwater.easybot.bridge.api.exec.ExecContext;
+import com.springwater.easybot.bridge.api.exec.IExecHandler;
+import com.springwater.easybot.bridge.api.rpc.BridgeRpc;
+import com.springwater.easybot.bridge.api.rpc.IRpcListener;
+import com.springwater.easybot.bridge.api.rpc.RpcContext;
+import com.springwater.easybot.bridge.codec.OutboundCallBack;
+import com.springwater.easybot.bridge.codec.OutboundEncoder;
+import com.springwater.easybot.bridge.extension.BridgeExecRegistry;
+import com.springwater.easybot.bridge.extension.BridgeRpcManager;
+import com.springwater.easybot.bridge.handler.BuiltinExecHandlers;
+import com.springwater.easybot.bridge.packet.RpcCallPacket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class RpcDispatchTest implements IBridgeExtension, IRpcListener {
+    @BridgeRpc(method = "echo")
+    public void echo(RpcContext context) {
+        context.getResult().add("echo", context.getBody().get("value"));
+    }
+
+    @BridgeRpc(method = "fail")
+    public void fail(RpcContext context) {
+        throw new IllegalStateException("数据库不可用");
+    }
+
+    private RpcContext call(BridgeRpcManager manager, String identifier, String method) {
+        JsonObject body = new JsonObject();
+        body.addProperty("value", 42);
+        return manager.call(identifier, method, new RpcContext(null, body));
+    }
+
+    @Test
+    public void routesAndUnwrapsErrors() {
+        BridgeRpcManager manager = new BridgeRpcManager();
+        manager.registerRpc(this, this);
+
+        RpcContext ok = call(manager, "bridge:rpc", "echo");
+        Assertions.assertEquals(42, ok.getResult().get("echo").getAsInt());
+        Assertions.assertFalse(ok.getError().has("error"));
+
+        RpcContext failed = call(manager, "bridge:rpc", "fail");
+        Assertions.assertTrue(failed.getError().get("error").getAsBoolean());
+        Assertions.assertEquals("内部错误: 数据库不可用", failed.getError().get("error_message").getAsString());
+
+        Assertions.assertEquals("扩展bridge:rpc中不存在方法: missing",
+                call(manager, "bridge:rpc", "missing").getError().get("error_message").getAsString());
+        Assertions.assertEquals("扩展不存在: bridge:other",
+                call(manager, "bridge:other", "echo").getError().get("error_message").getAsString());
+
+        manager.unregisterRpc(this);
+        Assertions.assertEquals("扩展不存在: bridge:rpc",
+                call(manager, "bridge:rpc", "echo").getError().get("error_message").getAsString());
+    }
+
+    @Test
+    public void reportsErrorsInCallback() throws Exception {
+        BridgeExecRegistry registry = new BridgeExecRegistry();
+        BuiltinExecHandlers.registerAll(registry);
+        BridgeClient.getRpcManager().registerRpc(this, this);
+        try {
+            JsonObject ok = rpcCall(registry, "echo");
+            Assertions.assertFalse(ok.get("error").getAsBoolean());
+            Assertions.assertEquals(42, ok.getAsJsonObject("result").get("echo").getAsInt());
+
+            JsonObject failed = rpcCall(registry, "fail");
+            Assertions.assertTrue(failed.get("error").getAsBoolean());
+            Assertions.assertEquals("内部错误: 数据库不可用", failed.get("error_message").getAsString());
+
+            JsonObject missing = rpcCall(registry, "missing");
+            Assertions.assertTrue(missing.get("error").getAsBoolean());
+            Assertions.assertEquals("扩展bridge:rpc中不存在方法: missing", missing.get("error_message").getAsString());
+        } finally {
+            BridgeClient.getRpcManager().unregisterRpc(this);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private JsonObject rpcCall(BridgeExecRegistry registry, String method) throws Exception {
+        JsonObject body = new JsonObject();
+        body.addProperty("value", 42);
+        RpcCallPacket packet = new RpcCallPacket();
+        packet.setCallBackId("1");
+        packet.setIdentifier("bridge:rpc");
+        packet.setMethod(method);
+        packet.setBody(body);
+        OutboundCallBack callBack = new OutboundCallBack("1", "RPC_CALL");
+        IExecHandler<RpcCallPacket> handler = (IExecHandler<RpcCallPacket>) registry.lookup("RPC_CALL").getHandler();
+        handler.handle(new ExecContext<>(null, packet, null, callBack));
+        return JsonParser.parseString(new OutboundEncoder(BridgeClient.getGson()).encode(callBack)).getAsJsonObject();
+    }
+
+    @Override
+    public String getIdentifier() {
+        return "bridge:rpc";
+    }
+
+    @Override
+    public String getName() {
+        return "RpcDispatchTest";
+    }
+
+    @Override
+    public String getDescription() {
+        return "";
+    }
+
+    @Override
+    public String getAuthor() {
+        return "";
+    }
+
+    @Override
+    public String getVersion() {
+        return "1.0.0";
+    }
+
+    @Override
+    public List<String> requiredPlugins() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.springwater.bridge.test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.springwater.easybot.bridge.BridgeClient;
+import com.springwater.easybot.bridge.codec.OutboundCallBack;
+import com.springwater.easybot.bridge.codec.OutboundEncoder;
+import com.springwater.easybot.bridge.model.ServerInfo;
+import com.springwater.easybot.bridge.state.ServerInfoSnapshot;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServerInfoSnapshotTest {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private ServerInfo load() {
+        ServerInfo info = new ServerInfo();
+        info.setServerName("Paper");
+        info.setServerVersion("1.20." + calls.incrementAndGet());
+        info.setPapiSupported(true);
+        return info;
+    }
+
+    @Test
+    public void encodesOnceUntilInvalidated() throws Exception {
+        ServerInfoSnapshot snapshot = new ServerInfoSnapshot(BridgeClient.getGson(), this::load);
+        OutboundEncoder encoder = new OutboundEncoder(BridgeClient.getGson());
+        for (int i = 0; i < 3; i++) {
+            OutboundCallBack callBack = new OutboundCallBack("1", "GET_SERVER_INFO");
+            callBack.setResult(snapshot.get());
+            JsonObject frame = JsonParser.parseString(encoder.encode(callBack)).getAsJsonObject();
+            Assertions.assertEquals("1.20.1", frame.get("server_version").getAsString());
+            Assertions.assertEquals("GET_SERVER_INFO", frame.get("exec_op").getAsString());
+            Assertions.assertTrue(frame.get("is_papi_supported").getAsBoolean());
+        }
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(2, snapshot.getHits());
+
+        snapshot.invalidate();
+        // 回调对象被访问过时走合并路径
+        OutboundCallBack callBack = new OutboundCallBack("2", "GET_SERVER_INFO");
+        callBack.getObject();
+        callBack.setResult(snapshot.get());
+        JsonObject frame = JsonParser.parseString(encoder.encode(callBack)).getAsJsonObject();
+        Assertions.assertEquals("1.20.2", frame.get("server_version").getAsString());
+
+        ServerInfo pushed = load();
+        snapshot.update(pushed);
+        Assertions.assertSame(pushed, snapshot.getInfo());
+        Assertions.assertEquals(3, calls.get());
+        Assertions.assertEquals(2, snapshot.getLoads());
+    }
+}
@@ -0,0 +1,119 @@
+package com.springwater.bridge.test;
+
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.packet.PacketWithCallBackId;
+import com.springwater.easybot.bridge.packet.ServerStateDeltaPacket;
+import com.springwater.easybot.bridge.packet.ServerStatePacket;
+import com.springwater.easybot.bridge.state.ServerStatePublisher;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServerStatePublisherTest {
+    private final List<PacketWithCallBackId> sent = new ArrayList<>();
+
+    @Test
+    public void coalescesAndSendsDeltasAfterSnapshot() {
+        long window = ClientProfile.getServerStateWindowMillis();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            // 窗口足够长, 由测试手动触发发送
+            ClientProfile.setServerStateWindowMillis(60_000);
+            ServerStatePublisher publisher = new ServerStatePublisher(scheduler, packet -> {
+                sent.add(packet);
+                return CompletableFuture.completedFuture(null);
+            }, () -> "token");
+            publisher.reset(true);
+
+            publisher.update(Collections.singletonList("Steve"));
+            publisher.update(Arrays.asList("Steve", "Alex"));
+            publisher.flush();
+            Assertions.assertEquals(1, sent.size());
+            Assertions.assertEquals("Steve,Alex", ((ServerStatePacket) sent.get(0)).getPlayers());
+            Assertions.assertEquals(1, publisher.getCoalesced());
+
+            publisher.update(Arrays.asList("Alex", "MiuxuE"));
+            publisher.flush();
+            ServerStateDeltaPacket delta = (ServerStateDeltaPacket) sent.get(1);
+            Assertions.assertEquals(Collections.singletonList("MiuxuE"), delta.getJoined());
+            Assertions.assertEquals(Collections.singletonList("Steve"), delta.getLeft());
+
+            publisher.update(Arrays.asList("MiuxuE", "Alex"));
+            publisher.flush();
+            Assertions.assertEquals(2, sent.size());
+
+            publisher.reset(true);
+            publisher.flush();
+            Assertions.assertInstanceOf(ServerStatePacket.class, sent.get(2));
+        } finally {
+            ClientProfile.setServerStateWindowMillis(window);
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sendsSnapshotAfterFailedWrite() throws Exception {
+        long window = ClientProfile.getServerStateWindowMillis();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            ClientProfile.setServerStateWindowMillis(60_000);
+            ServerStatePublisher publisher = new ServerStatePublisher(scheduler, packet -> {
+                sent.add(packet);
+                CompletableFuture<Void> future = new CompletableFuture<>();
+                if (sent.size() == 2) {
+                    future.completeExceptionally(new IllegalStateException("连接已断开"));
+                } else {
+                    future.complete(null);
+                }
+                return future;
+            }, () -> "token");
+            publisher.reset(true);
+
+            publisher.update(Collections.singletonList("Steve"));
+            publisher.flush();
+            publisher.update(Arrays.asList("Steve", "Alex"));
+            publisher.flush();
+            Assertions.assertInstanceOf(ServerStateDeltaPacket.class, sent.get(1));
+
+            // 失败后不会自行重试, 下一次更新以完整快照发送
+            publisher.flush();
+            Assertions.assertEquals(2, sent.size());
+            publisher.update(Arrays.asList("Steve", "Alex", "MiuxuE"));
+            publisher.flush();
+            Assertions.assertEquals("Steve,Alex,MiuxuE", ((ServerStatePacket) sent.get(2)).getPlayers());
+        } finally {
+            ClientProfile.setServerStateWindowMillis(window);
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failingSenderIsCalledOncePerUpdate() throws Exception {
+        long window = ClientProfile.getServerStateWindowMillis();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            ClientProfile.setServerStateWindowMillis(20);
+            ServerStatePublisher publisher = new ServerStatePublisher(scheduler, packet -> {
+                attempts.incrementAndGet();
+                CompletableFuture<Void> future = new CompletableFuture<>();
+                future.completeExceptionally(new IllegalStateException("session 不可用"));
+                return future;
+            }, () -> "token");
+            publisher.update(Collections.singletonList("Steve"));
+            Thread.sleep(300);
+            Assertions.assertEquals(1, attempts.get());
+        } finally {
+            ClientProfile.setServerStateWindowMillis(window);
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.springwater.bridge.test;
+
+import com.springwater.easybot.bridge.callback.SingleFlight;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTest {
+    @Test
+    public void sharesInFlightRequests() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute("GET_BIND_INFO\0Steve", () -> {
+            calls.incrementAndGet();
+            return response;
+        }, null);
+        CompletableFuture<String> second = singleFlight.execute("GET_BIND_INFO\0Steve", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        }, null);
+        CompletableFuture<String> other = singleFlight.execute("GET_BIND_INFO\0Alex", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("alex");
+        }, null);
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertEquals("alex", other.get());
+
+        // 取消自己的 future 不影响共享者
+        first.cancel(false);
+        response.complete("steve");
+        Assertions.assertEquals("steve", second.get());
+        Assertions.assertEquals(0, singleFlight.getInFlight());
+        Assertions.assertEquals(1, singleFlight.getSaved());
+
+        singleFlight.execute("GET_BIND_INFO\0Steve", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("again");
+        }, null);
+        Assertions.assertEquals(3, calls.get());
+        Assertions.assertEquals(3, singleFlight.getExecuted());
+    }
+}
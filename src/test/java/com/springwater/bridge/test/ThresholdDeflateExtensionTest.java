@@ -0,0 +1,68 @@
+package com.springwater.bridge.test;
+
+import com.springwater.easybot.bridge.ClientProfile;
+import com.springwater.easybot.bridge.transport.CompressionMetrics;
+import com.springwater.easybot.bridge.transport.ThresholdDeflateExtension;
+import org.eclipse.jetty.io.MappedByteBufferPool;
+import org.eclipse.jetty.util.compression.DeflaterPool;
+import org.eclipse.jetty.util.compression.InflaterPool;
+import org.eclipse.jetty.websocket.api.BatchMode;
+import org.eclipse.jetty.websocket.api.WebSocketPolicy;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.api.extensions.ExtensionConfig;
+import org.eclipse.jetty.websocket.api.extensions.Frame;
+import org.eclipse.jetty.websocket.common.frames.TextFrame;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+public class ThresholdDeflateExtensionTest {
+    private static final WriteCallback IGNORED = new WriteCallback() {
+        @Override
+        public void writeFailed(Throwable x) {
+        }
+
+        @Override
+        public void writeSuccess() {
+        }
+    };
+
+    private final List<Frame> frames = new ArrayList<>();
+
+    @Test
+    public void compressesOnlyMessagesAboveThreshold() {
+        CompressionMetrics metrics = new CompressionMetrics();
+        ThresholdDeflateExtension extension = new ThresholdDeflateExtension();
+        extension.setPolicy(WebSocketPolicy.newClientPolicy());
+        extension.setBufferPool(new MappedByteBufferPool());
+        extension.setDeflaterPool(new DeflaterPool(1, Deflater.DEFAULT_COMPRESSION, true));
+        extension.setInflaterPool(new InflaterPool(1, true));
+        extension.setConfig(ExtensionConfig.parse("permessage-deflate"));
+        extension.setMetrics(metrics);
+        extension.setNextOutgoingFrames((frame, callback, batchMode) -> {
+            frames.add(frame);
+            callback.writeSuccess();
+        });
+
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            large.append("{\"player_name\":\"MiuxuE\",\"player_uuid\":\"8667ba71-b85a-4004-af54-457a9734eed7\"},");
+        }
+        String small = "{\"op\":2}";
+        Assertions.assertTrue(small.length() < ClientProfile.getCompressionThreshold());
+        Assertions.assertTrue(large.length() > ClientProfile.getCompressionThreshold());
+
+        extension.outgoingFrame(new TextFrame().setPayload(small), IGNORED, BatchMode.OFF);
+        extension.outgoingFrame(new TextFrame().setPayload(large.toString()), IGNORED, BatchMode.OFF);
+
+        Assertions.assertFalse(frames.get(0).isRsv1());
+        Assertions.assertTrue(frames.get(1).isRsv1());
+        Assertions.assertEquals(1, metrics.getSkippedMessages());
+        Assertions.assertEquals(1, metrics.getCompressedMessages());
+        Assertions.assertEquals(large.length(), metrics.getOutboundRawBytes());
+        Assertions.assertTrue(metrics.getOutboundRatio() < 0.2);
+    }
+}